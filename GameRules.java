@@ -196,6 +196,9 @@ public class GameRules {
     public static final GameRules.Key<GameRules.BooleanValue> RULE_ENDER_PEARLS_VANISH_ON_DEATH = register(
         "enderPearlsVanishOnDeath", GameRules.Category.PLAYER, GameRules.BooleanValue.create(true)
     );
+    public static final GameRules.Key<GameRules.BooleanValue> RULE_COMPILED_REDSTONE_WIRE = register(
+        "compiledRedstoneWire", GameRules.Category.UPDATES, GameRules.BooleanValue.create(false)
+    );
     public static final GameRules.Key<GameRules.IntegerValue> RULE_MINECART_MAX_SPEED = register(
         "minecartMaxSpeed",
         GameRules.Category.MISC,
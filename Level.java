@@ -66,11 +66,13 @@ import net.minecraft.world.level.entity.LevelEntityGetter;
 import net.minecraft.world.level.gameevent.GameEvent;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.lighting.LevelLightEngine;
+import net.minecraft.world.level.material.FluidSpreadCache;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
-import net.minecraft.world.level.redstone.CollectingNeighborUpdater;
 import net.minecraft.world.level.redstone.NeighborUpdater;
 import net.minecraft.world.level.redstone.Orientation;
+import net.minecraft.world.level.redstone.PackedNeighborUpdater;
+import net.minecraft.world.level.redstone.RedstoneWireGraph;
 import net.minecraft.world.level.saveddata.maps.MapId;
 import net.minecraft.world.level.saveddata.maps.MapItemSavedData;
 import net.minecraft.world.level.storage.LevelData;
@@ -93,6 +95,8 @@ public abstract class Level implements LevelAccessor, AutoCloseable {
     public static final int MIN_ENTITY_SPAWN_Y = -20000000;
     protected final List<TickingBlockEntity> blockEntityTickers = Lists.newArrayList();
     protected final NeighborUpdater neighborUpdater;
+    private final FluidSpreadCache fluidSpreadCache = new FluidSpreadCache();
+    private final RedstoneWireGraph redstoneWireGraph = new RedstoneWireGraph();
     private final List<TickingBlockEntity> pendingBlockEntityTickers = Lists.newArrayList();
     private boolean tickingBlockEntities;
     private final Thread thread;
@@ -151,7 +155,7 @@ public abstract class Level implements LevelAccessor, AutoCloseable {
         this.thread = Thread.currentThread();
         this.biomeManager = new BiomeManager(this, p_270248_);
         this.isDebug = p_270470_;
-        this.neighborUpdater = new CollectingNeighborUpdater(this, p_270466_);
+        this.neighborUpdater = new PackedNeighborUpdater(this, p_270466_);
         this.registryAccess = p_270200_;
         this.damageSources = new DamageSources(p_270200_);
     }
@@ -224,6 +228,7 @@ public abstract class Level implements LevelAccessor, AutoCloseable {
                 if (blockstate1 == p_46606_) {
                     if (blockstate != blockstate1) {
                         this.setBlocksDirty(p_46605_, blockstate, blockstate1);
+                        this.redstoneWireGraph.onBlockChanged(this, p_46605_, blockstate, blockstate1);
                     }
 
                     if ((p_46607_ & 2) != 0
@@ -510,13 +515,18 @@ public abstract class Level implements LevelAccessor, AutoCloseable {
 
         Iterator<TickingBlockEntity> iterator = this.blockEntityTickers.iterator();
         boolean flag = this.tickRateManager().runsNormally();
+        long i = this.getGameTime();
 
         while (iterator.hasNext()) {
             TickingBlockEntity tickingblockentity = iterator.next();
             if (tickingblockentity.isRemoved()) {
                 iterator.remove();
             } else if (flag && this.shouldTickBlocksAt(tickingblockentity.getPos())) {
-                tickingblockentity.tick();
+                if (tickingblockentity.isSleeping(i)) {
+                    tickingblockentity.tickWhileSleeping(i);
+                } else {
+                    tickingblockentity.tick();
+                }
             }
         }
 
@@ -818,10 +828,23 @@ public abstract class Level implements LevelAccessor, AutoCloseable {
 
     public void blockEntityChanged(BlockPos p_151544_) {
         if (this.hasChunkAt(p_151544_)) {
-            this.getChunkAt(p_151544_).markUnsaved();
+            LevelChunk levelchunk = this.getChunkAt(p_151544_);
+            levelchunk.markUnsaved();
+            BlockEntity blockentity = levelchunk.getBlockEntity(p_151544_, LevelChunk.EntityCreationType.CHECK);
+            if (blockentity != null) {
+                blockentity.markContentsChanged();
+            }
         }
     }
 
+    public FluidSpreadCache getFluidSpreadCache() {
+        return this.fluidSpreadCache;
+    }
+
+    public RedstoneWireGraph getRedstoneWireGraph() {
+        return this.redstoneWireGraph;
+    }
+
     public void disconnect() {
     }
 
@@ -1014,6 +1037,12 @@ public abstract class Level implements LevelAccessor, AutoCloseable {
         return new BlockPos(p_46497_ + (i & 15), p_46498_ + (i >> 16 & p_46500_), p_46499_ + (i >> 8 & 15));
     }
 
+    public int getBlockRandomSectionIndex() {
+        this.randValue = this.randValue * 3 + 1013904223;
+        int i = this.randValue >> 2;
+        return (i >> 16 & 15) << 8 | (i >> 8 & 15) << 4 | i & 15;
+    }
+
     public boolean noSave() {
         return false;
     }
@@ -92,6 +92,15 @@ public final class NaturalSpawner {
         return new NaturalSpawner.SpawnState(p_186525_, object2intopenhashmap, potentialcalculator, p_186528_);
     }
 
+    public static NaturalSpawner.SpawnState createState(
+        int p_spawnableChunkCount, SpawnCategoryCounter p_counter, NaturalSpawner.ChunkGetter p_chunkGetter, LocalMobCapCalculator p_localMobCaps
+    ) {
+        PotentialCalculator potentialcalculator = new PotentialCalculator();
+        Object2IntOpenHashMap<MobCategory> object2intopenhashmap = new Object2IntOpenHashMap<>();
+        p_counter.fill(object2intopenhashmap, potentialcalculator, p_localMobCaps, p_chunkGetter);
+        return new NaturalSpawner.SpawnState(p_spawnableChunkCount, object2intopenhashmap, potentialcalculator, p_localMobCaps);
+    }
+
     static Biome getRoughBiome(BlockPos p_47096_, ChunkAccess p_47097_) {
         return p_47097_.getNoiseBiome(QuartPos.fromBlock(p_47096_.getX()), QuartPos.fromBlock(p_47096_.getY()), QuartPos.fromBlock(p_47096_.getZ()))
             .value();
@@ -175,10 +184,15 @@ public final class NaturalSpawner {
                     if (player != null) {
                         double d2 = player.distanceToSqr(d0, (double)i, d1);
                         if (isRightDistanceToPlayerAndSpawnPoint(p_47040_, p_47041_, blockpos$mutableblockpos, d2)) {
+                            WeightedRandomList<MobSpawnSettings.SpawnerData> weightedrandomlist = null;
                             if (mobspawnsettings$spawnerdata == null) {
-                                Optional<MobSpawnSettings.SpawnerData> optional = getRandomSpawnMobAt(
-                                    p_47040_, structuremanager, chunkgenerator, p_47039_, p_47040_.random, blockpos$mutableblockpos
-                                );
+                                Holder<Biome> holder = p_47040_.getBiome(blockpos$mutableblockpos);
+                                if (p_47039_ == MobCategory.WATER_AMBIENT && holder.is(BiomeTags.REDUCED_WATER_AMBIENT_SPAWNS) && p_47040_.random.nextFloat() < 0.98F) {
+                                    break;
+                                }
+
+                                weightedrandomlist = mobsAt(p_47040_, structuremanager, chunkgenerator, p_47039_, blockpos$mutableblockpos, holder);
+                                Optional<MobSpawnSettings.SpawnerData> optional = weightedrandomlist.getRandom(p_47040_.random);
                                 if (optional.isEmpty()) {
                                     break;
                                 }
@@ -188,7 +202,9 @@ public final class NaturalSpawner {
                                     + p_47040_.random.nextInt(1 + mobspawnsettings$spawnerdata.maxCount - mobspawnsettings$spawnerdata.minCount);
                             }
 
-                            if (isValidSpawnPostitionForType(p_47040_, p_47039_, structuremanager, chunkgenerator, mobspawnsettings$spawnerdata, blockpos$mutableblockpos, d2)
+                            if (isValidSpawnPostitionForType(
+                                    p_47040_, p_47039_, structuremanager, chunkgenerator, mobspawnsettings$spawnerdata, blockpos$mutableblockpos, d2, weightedrandomlist
+                                )
                                 && p_47043_.test(mobspawnsettings$spawnerdata.type, blockpos$mutableblockpos, p_47041_)) {
                                 Mob mob = getMobForSpawn(p_47040_, mobspawnsettings$spawnerdata.type);
                                 if (mob == null) {
@@ -236,14 +252,16 @@ public final class NaturalSpawner {
         ChunkGenerator p_220425_,
         MobSpawnSettings.SpawnerData p_220426_,
         BlockPos.MutableBlockPos p_220427_,
-        double p_220428_
+        double p_220428_,
+        @Nullable WeightedRandomList<MobSpawnSettings.SpawnerData> p_knownMobs
     ) {
         EntityType<?> entitytype = p_220426_.type;
         if (entitytype.getCategory() == MobCategory.MISC) {
             return false;
         } else if (!entitytype.canSpawnFarFromPlayer() && p_220428_ > (double)(entitytype.getCategory().getDespawnDistance() * entitytype.getCategory().getDespawnDistance())) {
             return false;
-        } else if (!entitytype.canSummon() || !canSpawnMobAt(p_220422_, p_220424_, p_220425_, p_220423_, p_220426_, p_220427_)) {
+        } else if (!entitytype.canSummon()
+            || !(p_knownMobs != null ? p_knownMobs.unwrap().contains(p_220426_) : canSpawnMobAt(p_220422_, p_220424_, p_220425_, p_220423_, p_220426_, p_220427_))) {
             return false;
         } else if (!SpawnPlacements.isSpawnPositionOk(entitytype, p_220422_, p_220427_)) {
             return false;
@@ -278,15 +296,6 @@ public final class NaturalSpawner {
             : p_46993_.checkSpawnRules(p_46992_, EntitySpawnReason.NATURAL) && p_46993_.checkSpawnObstruction(p_46992_);
     }
 
-    private static Optional<MobSpawnSettings.SpawnerData> getRandomSpawnMobAt(
-        ServerLevel p_220430_, StructureManager p_220431_, ChunkGenerator p_220432_, MobCategory p_220433_, RandomSource p_220434_, BlockPos p_220435_
-    ) {
-        Holder<Biome> holder = p_220430_.getBiome(p_220435_);
-        return p_220433_ == MobCategory.WATER_AMBIENT && holder.is(BiomeTags.REDUCED_WATER_AMBIENT_SPAWNS) && p_220434_.nextFloat() < 0.98F
-            ? Optional.empty()
-            : mobsAt(p_220430_, p_220431_, p_220432_, p_220433_, p_220435_, holder).getRandom(p_220434_);
-    }
-
     private static boolean canSpawnMobAt(
         ServerLevel p_220437_,
         StructureManager p_220438_,
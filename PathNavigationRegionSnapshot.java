@@ -0,0 +1,112 @@
+package net.minecraft.world.level;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.level.material.Fluids;
+
+public class PathNavigationRegionSnapshot extends PathNavigationRegion {
+    private static final int SECTION_MARGIN = 1;
+    private final int minSectionY;
+    private final LevelChunkSection[][][] sections;
+
+    public PathNavigationRegionSnapshot(Level p_level, BlockPos p_from, BlockPos p_to, PathNavigationRegionSnapshot.SectionCache p_cache) {
+        super(p_level, p_from, p_to);
+        this.minSectionY = Math.max(this.getMinSectionY(), SectionPos.blockToSectionCoord(p_from.getY()) - SECTION_MARGIN);
+        int i = Math.min(this.getMaxSectionY(), SectionPos.blockToSectionCoord(p_to.getY()) + SECTION_MARGIN);
+        this.sections = new LevelChunkSection[this.chunks.length][][];
+
+        for (int j = 0; j < this.chunks.length; j++) {
+            this.sections[j] = new LevelChunkSection[this.chunks[j].length][];
+
+            for (int k = 0; k < this.chunks[j].length; k++) {
+                ChunkAccess chunkaccess = this.chunks[j][k];
+                this.chunks[j][k] = null;
+                if (chunkaccess != null) {
+                    LevelChunkSection[] alevelchunksection = new LevelChunkSection[i - this.minSectionY + 1];
+
+                    for (int l = this.minSectionY; l <= i; l++) {
+                        LevelChunkSection levelchunksection = chunkaccess.getSection(chunkaccess.getSectionIndexFromSectionY(l));
+                        if (!levelchunksection.hasOnlyAir()) {
+                            alevelchunksection[l - this.minSectionY] = p_cache.copyOf(SectionPos.asLong(chunkaccess.getPos().x, l, chunkaccess.getPos().z), levelchunksection);
+                        }
+                    }
+
+                    this.sections[j][k] = alevelchunksection;
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private LevelChunkSection getSection(int p_x, int p_y, int p_z) {
+        int i = SectionPos.blockToSectionCoord(p_x) - this.centerX;
+        int j = SectionPos.blockToSectionCoord(p_z) - this.centerZ;
+        int k = SectionPos.blockToSectionCoord(p_y) - this.minSectionY;
+        if (i >= 0 && i < this.sections.length && j >= 0 && j < this.sections[i].length) {
+            LevelChunkSection[] alevelchunksection = this.sections[i][j];
+            return alevelchunksection != null && k >= 0 && k < alevelchunksection.length ? alevelchunksection[k] : null;
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public BlockGetter getChunkForCollisions(int p_chunkX, int p_chunkZ) {
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos p_pos) {
+        return null;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos p_pos) {
+        LevelChunkSection levelchunksection = this.getSection(p_pos.getX(), p_pos.getY(), p_pos.getZ());
+        return levelchunksection == null
+            ? Blocks.AIR.defaultBlockState()
+            : levelchunksection.getBlockState(p_pos.getX() & 15, p_pos.getY() & 15, p_pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos p_pos) {
+        LevelChunkSection levelchunksection = this.getSection(p_pos.getX(), p_pos.getY(), p_pos.getZ());
+        return levelchunksection == null
+            ? Fluids.EMPTY.defaultFluidState()
+            : levelchunksection.getFluidState(p_pos.getX() & 15, p_pos.getY() & 15, p_pos.getZ() & 15);
+    }
+
+    static record CachedSection(LevelChunkSection source, int version, LevelChunkSection copy) {
+    }
+
+    public static class SectionCache {
+        private static final int MAX_SIZE = 512;
+        private final Long2ObjectLinkedOpenHashMap<PathNavigationRegionSnapshot.CachedSection> sections = new Long2ObjectLinkedOpenHashMap<>();
+
+        LevelChunkSection copyOf(long p_sectionPos, LevelChunkSection p_section) {
+            PathNavigationRegionSnapshot.CachedSection pathnavigationregionsnapshot$cachedsection = this.sections.getAndMoveToLast(p_sectionPos);
+            if (pathnavigationregionsnapshot$cachedsection != null
+                && pathnavigationregionsnapshot$cachedsection.source() == p_section
+                && pathnavigationregionsnapshot$cachedsection.version() == p_section.getVersion()) {
+                return pathnavigationregionsnapshot$cachedsection.copy();
+            } else {
+                LevelChunkSection levelchunksection = p_section.copy();
+                this.sections.putAndMoveToLast(p_sectionPos, new PathNavigationRegionSnapshot.CachedSection(p_section, p_section.getVersion(), levelchunksection));
+                if (this.sections.size() > MAX_SIZE) {
+                    this.sections.removeFirst();
+                }
+
+                return levelchunksection;
+            }
+        }
+    }
+}
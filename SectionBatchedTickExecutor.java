@@ -0,0 +1,70 @@
+package net.minecraft.world.level;
+
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.FluidState;
+
+public abstract class SectionBatchedTickExecutor<T> implements BiConsumer<BlockPos, T> {
+    protected final ServerLevel level;
+    private long lastSectionPos = Long.MAX_VALUE;
+    @Nullable
+    private LevelChunkSection lastSection;
+
+    protected SectionBatchedTickExecutor(ServerLevel p_level) {
+        this.level = p_level;
+    }
+
+    public static SectionBatchedTickExecutor<Block> forBlocks(ServerLevel p_level) {
+        return new SectionBatchedTickExecutor<Block>(p_level) {
+            @Override
+            public void accept(BlockPos p_pos, Block p_block) {
+                BlockState blockstate = this.getBlockState(p_pos);
+                if (blockstate.is(p_block)) {
+                    blockstate.tick(this.level, p_pos, this.level.random);
+                }
+            }
+        };
+    }
+
+    public static SectionBatchedTickExecutor<Fluid> forFluids(ServerLevel p_level) {
+        return new SectionBatchedTickExecutor<Fluid>(p_level) {
+            @Override
+            public void accept(BlockPos p_pos, Fluid p_fluid) {
+                BlockState blockstate = this.getBlockState(p_pos);
+                FluidState fluidstate = blockstate.getFluidState();
+                if (fluidstate.is(p_fluid)) {
+                    fluidstate.tick(this.level, p_pos, blockstate);
+                }
+            }
+        };
+    }
+
+    public void reset() {
+        this.lastSectionPos = Long.MAX_VALUE;
+        this.lastSection = null;
+    }
+
+    protected BlockState getBlockState(BlockPos p_pos) {
+        if (this.level.isDebug()) {
+            return this.level.getBlockState(p_pos);
+        } else if (this.level.isOutsideBuildHeight(p_pos)) {
+            return Blocks.VOID_AIR.defaultBlockState();
+        } else {
+            long i = SectionPos.asLong(p_pos);
+            if (i != this.lastSectionPos) {
+                this.lastSection = this.level.getChunkAt(p_pos).getSection(this.level.getSectionIndex(p_pos.getY()));
+                this.lastSectionPos = i;
+            }
+
+            return this.lastSection.getBlockState(p_pos.getX() & 15, p_pos.getY() & 15, p_pos.getZ() & 15);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package net.minecraft.world.level;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Reference2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.QuartPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.level.biome.MobSpawnSettings;
+
+public class SpawnCategoryCounter {
+    private static final MobCategory[] CATEGORIES = MobCategory.values();
+    private final Long2ObjectMap<SpawnCategoryCounter.ChunkCounts> countsByChunk = new Long2ObjectOpenHashMap<>();
+    private final Reference2ObjectMap<Entity, SpawnCategoryCounter.Entry> entries = new Reference2ObjectOpenHashMap<>();
+
+    public void add(Entity p_entity) {
+        if (!this.entries.containsKey(p_entity)) {
+            if (!(p_entity instanceof Mob mob && (mob.isPersistenceRequired() || mob.requiresCustomPersistence()))) {
+                MobCategory mobcategory = p_entity.getType().getCategory();
+                if (mobcategory != MobCategory.MISC) {
+                    BlockPos blockpos = p_entity.blockPosition();
+                    MobSpawnSettings.MobSpawnCost mobspawnsettings$mobspawncost = p_entity.level()
+                        .getNoiseBiome(QuartPos.fromBlock(blockpos.getX()), QuartPos.fromBlock(blockpos.getY()), QuartPos.fromBlock(blockpos.getZ()))
+                        .value()
+                        .getMobSettings()
+                        .getMobSpawnCost(p_entity.getType());
+                    SpawnCategoryCounter.Entry spawncategorycounter$entry = new SpawnCategoryCounter.Entry(
+                        mobcategory,
+                        ChunkPos.asLong(blockpos),
+                        p_entity instanceof Mob,
+                        mobspawnsettings$mobspawncost != null ? mobspawnsettings$mobspawncost.charge() : 0.0
+                    );
+                    this.entries.put(p_entity, spawncategorycounter$entry);
+                    this.countsByChunk
+                        .computeIfAbsent(spawncategorycounter$entry.chunk(), p_chunk -> new SpawnCategoryCounter.ChunkCounts())
+                        .add(p_entity, spawncategorycounter$entry);
+                }
+            }
+        }
+    }
+
+    public void remove(Entity p_entity) {
+        SpawnCategoryCounter.Entry spawncategorycounter$entry = this.entries.remove(p_entity);
+        if (spawncategorycounter$entry != null) {
+            SpawnCategoryCounter.ChunkCounts spawncategorycounter$chunkcounts = this.countsByChunk.get(spawncategorycounter$entry.chunk());
+            if (spawncategorycounter$chunkcounts != null && spawncategorycounter$chunkcounts.remove(p_entity, spawncategorycounter$entry)) {
+                this.countsByChunk.remove(spawncategorycounter$entry.chunk());
+            }
+        }
+    }
+
+    public void update(Entity p_entity) {
+        this.remove(p_entity);
+        this.add(p_entity);
+    }
+
+    public void onPersistenceChanged(Entity p_entity) {
+        this.update(p_entity);
+    }
+
+    public void fill(
+        Object2IntOpenHashMap<MobCategory> p_counts, PotentialCalculator p_potential, LocalMobCapCalculator p_localMobCaps, NaturalSpawner.ChunkGetter p_chunkGetter
+    ) {
+        for (Long2ObjectMap.Entry<SpawnCategoryCounter.ChunkCounts> entry : this.countsByChunk.long2ObjectEntrySet()) {
+            SpawnCategoryCounter.ChunkCounts spawncategorycounter$chunkcounts = entry.getValue();
+            p_chunkGetter.query(entry.getLongKey(), p_chunk -> {
+                for (MobCategory mobcategory : CATEGORIES) {
+                    int i = spawncategorycounter$chunkcounts.counts[mobcategory.ordinal()];
+                    if (i > 0) {
+                        p_counts.addTo(mobcategory, i);
+                    }
+
+                    int j = spawncategorycounter$chunkcounts.mobCounts[mobcategory.ordinal()];
+                    if (j > 0) {
+                        p_localMobCaps.addMobs(p_chunk.getPos(), mobcategory, j);
+                    }
+                }
+
+                if (spawncategorycounter$chunkcounts.charges != null) {
+                    for (Reference2DoubleMap.Entry<Entity> entry1 : spawncategorycounter$chunkcounts.charges.reference2DoubleEntrySet()) {
+                        p_potential.addCharge(entry1.getKey().blockPosition(), entry1.getDoubleValue());
+                    }
+                }
+            });
+        }
+    }
+
+    static class ChunkCounts {
+        final int[] counts = new int[CATEGORIES.length];
+        final int[] mobCounts = new int[CATEGORIES.length];
+        @Nullable
+        Reference2DoubleMap<Entity> charges;
+        private int total;
+
+        void add(Entity p_entity, SpawnCategoryCounter.Entry p_entry) {
+            this.counts[p_entry.category().ordinal()]++;
+            if (p_entry.mob()) {
+                this.mobCounts[p_entry.category().ordinal()]++;
+            }
+
+            if (p_entry.charge() != 0.0) {
+                if (this.charges == null) {
+                    this.charges = new Reference2DoubleOpenHashMap<>();
+                }
+
+                this.charges.put(p_entity, p_entry.charge());
+            }
+
+            this.total++;
+        }
+
+        boolean remove(Entity p_entity, SpawnCategoryCounter.Entry p_entry) {
+            this.counts[p_entry.category().ordinal()]--;
+            if (p_entry.mob()) {
+                this.mobCounts[p_entry.category().ordinal()]--;
+            }
+
+            if (this.charges != null) {
+                this.charges.removeDouble(p_entity);
+                if (this.charges.isEmpty()) {
+                    this.charges = null;
+                }
+            }
+
+            return --this.total <= 0;
+        }
+    }
+
+    static record Entry(MobCategory category, long chunk, boolean mob, double charge) {
+    }
+}
@@ -135,6 +135,10 @@ public class HopperBlock extends BaseEntityBlock {
 
     @Override
     protected void neighborChanged(BlockState p_54078_, Level p_54079_, BlockPos p_54080_, Block p_54081_, @Nullable Orientation p_364751_, boolean p_54083_) {
+        if (p_54079_.getBlockEntity(p_54080_) instanceof HopperBlockEntity hopperblockentity) {
+            hopperblockentity.invalidateContainerCache();
+        }
+
         this.checkPoweredState(p_54079_, p_54080_, p_54078_);
     }
 
@@ -9,6 +9,7 @@ import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.particles.DustParticleOptions;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.ARGB;
 import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
@@ -17,6 +18,7 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.flag.FeatureFlags;
 import net.minecraft.world.item.context.BlockPlaceContext;
 import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.GameRules;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
 import net.minecraft.world.level.LevelReader;
@@ -28,6 +30,7 @@ import net.minecraft.world.level.block.state.properties.BlockStateProperties;
 import net.minecraft.world.level.block.state.properties.EnumProperty;
 import net.minecraft.world.level.block.state.properties.IntegerProperty;
 import net.minecraft.world.level.block.state.properties.RedstoneSide;
+import net.minecraft.world.level.redstone.CompiledRedstoneWireEvaluator;
 import net.minecraft.world.level.redstone.DefaultRedstoneWireEvaluator;
 import net.minecraft.world.level.redstone.ExperimentalRedstoneUtils;
 import net.minecraft.world.level.redstone.ExperimentalRedstoneWireEvaluator;
@@ -91,6 +94,7 @@ public class RedStoneWireBlock extends Block {
     private static final float PARTICLE_DENSITY = 0.2F;
     private final BlockState crossState;
     private final RedstoneWireEvaluator evaluator = new DefaultRedstoneWireEvaluator(this);
+    private final CompiledRedstoneWireEvaluator compiledEvaluator = new CompiledRedstoneWireEvaluator(this);
     private boolean shouldSignal = true;
 
     @Override
@@ -291,7 +295,16 @@ public class RedStoneWireBlock extends Block {
 
     private void updatePowerStrength(Level p_55531_, BlockPos p_55532_, BlockState p_55533_, @Nullable Orientation p_363629_, boolean p_368749_) {
         if (useExperimentalEvaluator(p_55531_)) {
-            new ExperimentalRedstoneWireEvaluator(this).updatePowerStrength(p_55531_, p_55532_, p_55533_, p_363629_, p_368749_);
+            RedstoneWireEvaluator redstonewireevaluator;
+            if (!useCompiledEvaluator(p_55531_)) {
+                redstonewireevaluator = new ExperimentalRedstoneWireEvaluator(this);
+            } else if (this.compiledEvaluator.isRunning()) {
+                redstonewireevaluator = new CompiledRedstoneWireEvaluator(this);
+            } else {
+                redstonewireevaluator = this.compiledEvaluator;
+            }
+
+            redstonewireevaluator.updatePowerStrength(p_55531_, p_55532_, p_55533_, p_363629_, p_368749_);
         } else {
             this.evaluator.updatePowerStrength(p_55531_, p_55532_, p_55533_, p_363629_, p_368749_);
         }
@@ -375,6 +388,10 @@ public class RedStoneWireBlock extends Block {
         return p_369145_.enabledFeatures().contains(FeatureFlags.REDSTONE_EXPERIMENTS);
     }
 
+    private static boolean useCompiledEvaluator(Level p_level) {
+        return p_level instanceof ServerLevel serverlevel && serverlevel.getGameRules().getBoolean(GameRules.RULE_COMPILED_REDSTONE_WIRE);
+    }
+
     @Override
     protected int getDirectSignal(BlockState p_55625_, BlockGetter p_55626_, BlockPos p_55627_, Direction p_55628_) {
         return !this.shouldSignal ? 0 : p_55625_.getSignal(p_55626_, p_55627_, p_55628_);
@@ -203,6 +203,10 @@ public abstract class AbstractFurnaceBlockEntity extends BaseContainerBlockEntit
         if (flag1) {
             setChanged(p_364207_, p_155015_, p_155016_);
         }
+
+        if (!p_155017_.isLit() && p_155017_.cookingTimer == 0) {
+            p_155017_.sleep();
+        }
     }
 
     private static boolean canBurn(
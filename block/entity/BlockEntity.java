@@ -33,6 +33,8 @@ public abstract class BlockEntity {
     protected Level level;
     protected final BlockPos worldPosition;
     protected boolean remove;
+    private long sleepingUntil = Long.MIN_VALUE;
+    private int changeCount;
     private BlockState blockState;
     private DataComponentMap components = DataComponentMap.EMPTY;
 
@@ -173,6 +175,7 @@ public abstract class BlockEntity {
     }
 
     public void setChanged() {
+        this.wakeUp();
         if (this.level != null) {
             setChanged(this.level, this.worldPosition, this.blockState);
         }
@@ -238,6 +241,34 @@ public abstract class BlockEntity {
     public void setBlockState(BlockState p_155251_) {
         this.validateBlockState(p_155251_);
         this.blockState = p_155251_;
+        this.wakeUp();
+    }
+
+    public void sleep() {
+        this.sleepingUntil = Long.MAX_VALUE;
+    }
+
+    public void sleepUntil(long p_gameTime) {
+        this.sleepingUntil = p_gameTime;
+    }
+
+    public void wakeUp() {
+        this.sleepingUntil = Long.MIN_VALUE;
+    }
+
+    public boolean isSleeping(long p_gameTime) {
+        return p_gameTime < this.sleepingUntil;
+    }
+
+    public void tickWhileSleeping(long p_gameTime) {
+    }
+
+    public int getChangeCount() {
+        return this.changeCount;
+    }
+
+    public void markContentsChanged() {
+        this.changeCount++;
     }
 
     protected void applyImplicitComponents(BlockEntity.DataComponentInput p_330805_) {
@@ -132,6 +132,10 @@ public class BrewingStandBlockEntity extends BaseContainerBlockEntity implements
 
             p_155286_.setBlock(p_155287_, blockstate, 2);
         }
+
+        if (p_155289_.brewTime == 0) {
+            p_155289_.sleep();
+        }
     }
 
     private boolean[] getPotionBits() {
@@ -72,6 +72,8 @@ public class CampfireBlockEntity extends BlockEntity implements Clearable {
 
         if (flag) {
             setChanged(p_369462_, p_155308_, p_155309_);
+        } else {
+            p_155310_.sleep();
         }
     }
 
@@ -87,6 +89,8 @@ public class CampfireBlockEntity extends BlockEntity implements Clearable {
 
         if (flag) {
             setChanged(p_155314_, p_155315_, p_155316_);
+        } else {
+            p_155317_.sleep();
         }
     }
 
@@ -26,6 +26,7 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.ChestBlock;
 import net.minecraft.world.level.block.HopperBlock;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.ChestType;
 import net.minecraft.world.phys.AABB;
 
 public class HopperBlockEntity extends RandomizableContainerBlockEntity implements Hopper {
@@ -36,6 +37,12 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
     private int cooldownTime = -1;
     private long tickedGameTime;
     private Direction facing;
+    @Nullable
+    private HopperBlockEntity.CachedContainer attachedContainer;
+    @Nullable
+    private HopperBlockEntity.CachedContainer sourceContainer;
+    @Nullable
+    private HopperBlockEntity.TransferAttempt failedTransfer;
 
     public HopperBlockEntity(BlockPos p_155550_, BlockState p_155551_) {
         super(BlockEntityType.HOPPER, p_155550_, p_155551_);
@@ -85,6 +92,13 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
     public void setBlockState(BlockState p_334323_) {
         super.setBlockState(p_334323_);
         this.facing = p_334323_.getValue(HopperBlock.FACING);
+        this.invalidateContainerCache();
+    }
+
+    public void invalidateContainerCache() {
+        this.attachedContainer = null;
+        this.sourceContainer = null;
+        this.failedTransfer = null;
     }
 
     @Override
@@ -97,10 +111,26 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
         p_155577_.tickedGameTime = p_155574_.getGameTime();
         if (!p_155577_.isOnCooldown()) {
             p_155577_.setCooldown(0);
-            tryMoveItems(p_155574_, p_155575_, p_155576_, p_155577_, () -> suckInItems(p_155574_, p_155577_));
+            HopperBlockEntity.TransferAttempt hopperblockentity$transferattempt = p_155577_.failedTransfer;
+            if (hopperblockentity$transferattempt == null || !hopperblockentity$transferattempt.isUnchanged(p_155574_, p_155575_, p_155577_)) {
+                if (tryMoveItems(p_155574_, p_155575_, p_155576_, p_155577_, () -> suckInItems(p_155574_, p_155577_))) {
+                    p_155577_.failedTransfer = null;
+                } else {
+                    p_155577_.failedTransfer = HopperBlockEntity.TransferAttempt.capture(p_155577_);
+                }
+            }
+        }
+
+        if (!p_155576_.getValue(HopperBlock.ENABLED) && !p_155577_.isOnCooldown()) {
+            p_155577_.sleep();
         }
     }
 
+    @Override
+    public void tickWhileSleeping(long p_gameTime) {
+        this.tickedGameTime = p_gameTime;
+    }
+
     private static boolean tryMoveItems(Level p_155579_, BlockPos p_155580_, BlockState p_155581_, HopperBlockEntity p_155582_, BooleanSupplier p_155583_) {
         if (p_155579_.isClientSide) {
             return false;
@@ -353,11 +383,25 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
 
     @Nullable
     private static Container getAttachedContainer(Level p_155593_, BlockPos p_155594_, HopperBlockEntity p_331744_) {
-        return getContainerAt(p_155593_, p_155594_.relative(p_331744_.facing));
+        BlockPos blockpos = p_155594_.relative(p_331744_.facing);
+        BlockState blockstate = p_155593_.getBlockState(blockpos);
+        p_331744_.attachedContainer = HopperBlockEntity.CachedContainer.refresh(p_331744_.attachedContainer, p_155593_, blockpos, blockstate);
+        return p_331744_.attachedContainer != null
+            ? p_331744_.attachedContainer.container()
+            : getContainerAt(
+                p_155593_, blockpos, blockstate, (double)blockpos.getX() + 0.5, (double)blockpos.getY() + 0.5, (double)blockpos.getZ() + 0.5
+            );
     }
 
     @Nullable
     private static Container getSourceContainer(Level p_155597_, Hopper p_155598_, BlockPos p_330370_, BlockState p_334668_) {
+        if (p_155598_ instanceof HopperBlockEntity hopperblockentity) {
+            hopperblockentity.sourceContainer = HopperBlockEntity.CachedContainer.refresh(hopperblockentity.sourceContainer, p_155597_, p_330370_, p_334668_);
+            if (hopperblockentity.sourceContainer != null) {
+                return hopperblockentity.sourceContainer.container();
+            }
+        }
+
         return getContainerAt(p_155597_, p_330370_, p_334668_, p_155598_.getLevelX(), p_155598_.getLevelY() + 1.0, p_155598_.getLevelZ());
     }
 
@@ -461,6 +505,7 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
     }
 
     public static void entityInside(Level p_155568_, BlockPos p_155569_, BlockState p_155570_, Entity p_155571_, HopperBlockEntity p_155572_) {
+        p_155572_.wakeUp();
         if (p_155571_ instanceof ItemEntity itementity
             && !itementity.getItem().isEmpty()
             && p_155571_.getBoundingBox()
@@ -474,4 +519,90 @@ public class HopperBlockEntity extends RandomizableContainerBlockEntity implemen
     protected AbstractContainerMenu createMenu(int p_59312_, Inventory p_59313_) {
         return new HopperMenu(p_59312_, p_59313_, this);
     }
+
+    record CachedContainer(BlockState state, Container container, BlockEntity primary, @Nullable BlockEntity secondary) {
+        @Nullable
+        static HopperBlockEntity.CachedContainer refresh(
+            @Nullable HopperBlockEntity.CachedContainer p_cached, Level p_level, BlockPos p_pos, BlockState p_state
+        ) {
+            return p_cached != null && p_cached.isValid(p_state) ? p_cached : create(p_level, p_pos, p_state);
+        }
+
+        @Nullable
+        private static HopperBlockEntity.CachedContainer create(Level p_level, BlockPos p_pos, BlockState p_state) {
+            Block block = p_state.getBlock();
+            if (!p_state.hasBlockEntity() || block instanceof WorldlyContainerHolder) {
+                return null;
+            } else if (!(p_level.getBlockEntity(p_pos) instanceof Container container)) {
+                return null;
+            } else if (container instanceof ChestBlockEntity chestblockentity && block instanceof ChestBlock chestblock) {
+                Container container1 = ChestBlock.getContainer(chestblock, p_state, p_level, p_pos, true);
+                if (container1 == chestblockentity) {
+                    return p_state.getValue(ChestBlock.TYPE) == ChestType.SINGLE
+                        ? new HopperBlockEntity.CachedContainer(p_state, chestblockentity, chestblockentity, null)
+                        : null;
+                } else {
+                    BlockEntity blockentity = p_level.getBlockEntity(p_pos.relative(ChestBlock.getConnectedDirection(p_state)));
+                    return container1 != null && blockentity instanceof ChestBlockEntity
+                        ? new HopperBlockEntity.CachedContainer(p_state, container1, chestblockentity, blockentity)
+                        : null;
+                }
+            } else {
+                return new HopperBlockEntity.CachedContainer(p_state, container, (BlockEntity)container, null);
+            }
+        }
+
+        boolean isValid(BlockState p_state) {
+            return this.state == p_state && !this.primary.isRemoved() && (this.secondary == null || !this.secondary.isRemoved());
+        }
+
+        long changeCount() {
+            return this.secondary == null ? (long)this.primary.getChangeCount() : (long)this.primary.getChangeCount() + (long)this.secondary.getChangeCount();
+        }
+    }
+
+    record TransferAttempt(
+        int changeCount,
+        @Nullable HopperBlockEntity.CachedContainer attached,
+        long attachedChangeCount,
+        @Nullable HopperBlockEntity.CachedContainer source,
+        long sourceChangeCount
+    ) {
+        @Nullable
+        static HopperBlockEntity.TransferAttempt capture(HopperBlockEntity p_hopper) {
+            boolean flag = !p_hopper.isEmpty();
+            boolean flag1 = !p_hopper.inventoryFull();
+            HopperBlockEntity.CachedContainer hopperblockentity$cachedcontainer = flag ? p_hopper.attachedContainer : null;
+            HopperBlockEntity.CachedContainer hopperblockentity$cachedcontainer1 = flag1 ? p_hopper.sourceContainer : null;
+            if (flag && hopperblockentity$cachedcontainer == null || flag1 && hopperblockentity$cachedcontainer1 == null) {
+                return null;
+            } else {
+                return new HopperBlockEntity.TransferAttempt(
+                    p_hopper.getChangeCount(),
+                    hopperblockentity$cachedcontainer,
+                    hopperblockentity$cachedcontainer == null ? 0L : hopperblockentity$cachedcontainer.changeCount(),
+                    hopperblockentity$cachedcontainer1,
+                    hopperblockentity$cachedcontainer1 == null ? 0L : hopperblockentity$cachedcontainer1.changeCount()
+                );
+            }
+        }
+
+        boolean isUnchanged(Level p_level, BlockPos p_pos, HopperBlockEntity p_hopper) {
+            if (p_hopper.getChangeCount() != this.changeCount) {
+                return false;
+            } else if (this.attached != null
+                && (
+                    this.attached != p_hopper.attachedContainer
+                        || !this.attached.isValid(p_level.getBlockState(p_pos.relative(p_hopper.facing)))
+                        || this.attached.changeCount() != this.attachedChangeCount
+                )) {
+                return false;
+            } else {
+                return this.source == null
+                    || this.source == p_hopper.sourceContainer
+                        && this.source.isValid(p_level.getBlockState(p_pos.above()))
+                        && this.source.changeCount() == this.sourceChangeCount;
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -10,4 +10,11 @@ public interface TickingBlockEntity {
     BlockPos getPos();
 
     String getType();
+
+    default boolean isSleeping(long p_gameTime) {
+        return false;
+    }
+
+    default void tickWhileSleeping(long p_gameTime) {
+    }
 }
\ No newline at end of file
@@ -306,6 +306,7 @@ public class PistonBaseBlock extends DirectionalBlock {
             List<BlockPos> list2 = pistonstructureresolver.getToDestroy();
             BlockState[] ablockstate = new BlockState[list.size() + list2.size()];
             Direction direction = p_60185_ ? p_60184_ : p_60184_.getOpposite();
+            PistonMovingGroup pistonmovinggroup = !p_60182_.isClientSide && list.size() + (p_60185_ ? 1 : 0) > 1 ? new PistonMovingGroup() : null;
             int i = 0;
 
             for (int j = list2.size() - 1; j >= 0; j--) {
@@ -329,7 +330,12 @@ public class PistonBaseBlock extends DirectionalBlock {
                 map.remove(blockpos3);
                 BlockState blockstate7 = Blocks.MOVING_PISTON.defaultBlockState().setValue(FACING, p_60184_);
                 p_60182_.setBlock(blockpos3, blockstate7, 68);
-                p_60182_.setBlockEntity(MovingPistonBlock.newMovingBlockEntity(blockpos3, blockstate7, list1.get(k), p_60184_, p_60185_, false));
+                PistonMovingBlockEntity pistonmovingblockentity = new PistonMovingBlockEntity(blockpos3, blockstate7, list1.get(k), p_60184_, p_60185_, false);
+                if (pistonmovinggroup != null) {
+                    pistonmovinggroup.add(pistonmovingblockentity);
+                }
+
+                p_60182_.setBlockEntity(pistonmovingblockentity);
                 ablockstate[i++] = blockstate5;
             }
 
@@ -342,7 +348,12 @@ public class PistonBaseBlock extends DirectionalBlock {
                     .setValue(MovingPistonBlock.TYPE, this.isSticky ? PistonType.STICKY : PistonType.DEFAULT);
                 map.remove(blockpos);
                 p_60182_.setBlock(blockpos, blockstate6, 68);
-                p_60182_.setBlockEntity(MovingPistonBlock.newMovingBlockEntity(blockpos, blockstate6, blockstate4, p_60184_, true, true));
+                PistonMovingBlockEntity pistonmovingblockentity1 = new PistonMovingBlockEntity(blockpos, blockstate6, blockstate4, p_60184_, true, true);
+                if (pistonmovinggroup != null) {
+                    pistonmovinggroup.add(pistonmovingblockentity1);
+                }
+
+                p_60182_.setBlockEntity(pistonmovingblockentity1);
             }
 
             BlockState blockstate3 = Blocks.AIR.defaultBlockState();
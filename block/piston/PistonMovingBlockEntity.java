@@ -2,6 +2,8 @@ package net.minecraft.world.level.block.piston;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.HolderGetter;
@@ -13,6 +15,7 @@ import net.minecraft.nbt.NbtUtils;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntitySelector;
 import net.minecraft.world.entity.MoverType;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
@@ -43,6 +46,8 @@ public class PistonMovingBlockEntity extends BlockEntity {
     private float progressO;
     private long lastTicked;
     private int deathTicks;
+    @Nullable
+    private PistonMovingGroup group;
 
     public PistonMovingBlockEntity(BlockPos p_155901_, BlockState p_155902_) {
         super(BlockEntityType.PISTON, p_155901_, p_155902_);
@@ -113,7 +118,7 @@ public class PistonMovingBlockEntity extends BlockEntity {
         VoxelShape voxelshape = p_155914_.getCollisionRelatedBlockState().getCollisionShape(p_155911_, p_155912_);
         if (!voxelshape.isEmpty()) {
             AABB aabb = moveByPositionAndProgress(p_155912_, voxelshape.bounds(), p_155914_);
-            List<Entity> list = p_155911_.getEntities(null, PistonMath.getMovementArea(aabb, direction, d0).minmax(aabb));
+            List<Entity> list = p_155914_.getEntities(p_155911_, PistonMath.getMovementArea(aabb, direction, d0).minmax(aabb), EntitySelector.NO_SPECTATORS);
             if (!list.isEmpty()) {
                 List<AABB> list1 = voxelshape.toAabbs();
                 boolean flag = p_155914_.movedState.is(Blocks.SLIME_BLOCK);
@@ -180,6 +185,7 @@ public class PistonMovingBlockEntity extends BlockEntity {
     }
 
     private static void moveEntityByPiston(Direction p_60372_, Entity p_60373_, double p_60374_, Direction p_60375_) {
+        PistonMovingGroup.onEntityPushed();
         NOCLIP.set(p_60372_);
         p_60373_.move(
             MoverType.PISTON,
@@ -197,13 +203,44 @@ public class PistonMovingBlockEntity extends BlockEntity {
                 AABB aabb = moveByPositionAndProgress(p_155933_, new AABB(0.0, d0, 0.0, 1.0, 1.5000010000000001, 1.0), p_155935_);
                 double d1 = (double)(p_155934_ - p_155935_.progress);
 
-                for (Entity entity : p_155932_.getEntities((Entity)null, aabb, p_287552_ -> matchesStickyCritera(aabb, p_287552_, p_155933_))) {
+                for (Entity entity : p_155935_.getEntities(p_155932_, aabb, p_287552_ -> matchesStickyCritera(aabb, p_287552_, p_155933_))) {
                     moveEntityByPiston(direction, entity, d1, direction);
                 }
             }
         }
     }
 
+    private List<Entity> getEntities(Level p_level, AABB p_area, Predicate<? super Entity> p_filter) {
+        return this.group != null ? this.group.getEntities(p_level, p_area, p_filter) : p_level.getEntities((Entity)null, p_area, p_filter);
+    }
+
+    void setGroup(PistonMovingGroup p_group) {
+        this.group = p_group;
+    }
+
+    @Nullable
+    AABB getEntitySearchArea(Level p_level) {
+        if (this.progress >= 1.0F) {
+            return null;
+        } else {
+            Direction direction = this.getMovementDirection();
+            AABB aabb = null;
+            VoxelShape voxelshape = this.getCollisionRelatedBlockState().getCollisionShape(p_level, this.worldPosition);
+            if (!voxelshape.isEmpty()) {
+                AABB aabb1 = moveByPositionAndProgress(this.worldPosition, voxelshape.bounds(), this);
+                aabb = PistonMath.getMovementArea(aabb1, direction, (double)(this.progress + 0.5F - this.progress)).minmax(aabb1);
+            }
+
+            if (this.isStickyForEntities() && direction.getAxis().isHorizontal()) {
+                double d0 = this.movedState.getCollisionShape(p_level, this.worldPosition).max(Direction.Axis.Y);
+                AABB aabb2 = moveByPositionAndProgress(this.worldPosition, new AABB(0.0, d0, 0.0, 1.0, 1.5000010000000001, 1.0), this);
+                aabb = aabb == null ? aabb2 : aabb.minmax(aabb2);
+            }
+
+            return aabb;
+        }
+    }
+
     private static boolean matchesStickyCritera(AABB p_287782_, Entity p_287720_, BlockPos p_287775_) {
         return p_287720_.getPistonPushReaction() == PushReaction.NORMAL
             && p_287720_.onGround()
@@ -275,6 +312,10 @@ public class PistonMovingBlockEntity extends BlockEntity {
             this.progressO = this.progress;
             this.level.removeBlockEntity(this.worldPosition);
             this.setRemoved();
+            if (this.group != null) {
+                this.group.onMemberFinished();
+            }
+
             if (this.level.getBlockState(this.worldPosition).is(Blocks.MOVING_PISTON)) {
                 BlockState blockstate;
                 if (this.isSourcePiston) {
@@ -302,6 +343,10 @@ public class PistonMovingBlockEntity extends BlockEntity {
             } else {
                 p_155916_.removeBlockEntity(p_155917_);
                 p_155919_.setRemoved();
+                if (p_155919_.group != null) {
+                    p_155919_.group.onMemberFinished();
+                }
+
                 if (p_155916_.getBlockState(p_155917_).is(Blocks.MOVING_PISTON)) {
                     BlockState blockstate = Block.updateFromNeighbourShapes(p_155919_.movedState, p_155916_, p_155917_);
                     if (blockstate.isAir()) {
@@ -321,6 +366,10 @@ public class PistonMovingBlockEntity extends BlockEntity {
             float f = p_155919_.progress + 0.5F;
             moveCollidedEntities(p_155916_, p_155917_, f, p_155919_);
             moveStuckEntities(p_155916_, p_155917_, f, p_155919_);
+            if (p_155919_.group != null) {
+                p_155919_.group.onMemberMoved();
+            }
+
             p_155919_.progress = f;
             if (p_155919_.progress >= 1.0F) {
                 p_155919_.progress = 1.0F;
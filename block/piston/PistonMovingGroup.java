@@ -0,0 +1,71 @@
+package net.minecraft.world.level.block.piston;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import org.apache.commons.lang3.mutable.MutableLong;
+
+public class PistonMovingGroup {
+    private static final ThreadLocal<MutableLong> PUSHED_ENTITIES = ThreadLocal.withInitial(MutableLong::new);
+    private final List<PistonMovingBlockEntity> members = Lists.newArrayList();
+    private List<Entity> entities = List.of();
+    private long queriedAt = Long.MIN_VALUE;
+    private long expectedPushes;
+
+    void add(PistonMovingBlockEntity p_member) {
+        this.members.add(p_member);
+        p_member.setGroup(this);
+    }
+
+    static void onEntityPushed() {
+        PUSHED_ENTITIES.get().increment();
+    }
+
+    void onMemberMoved() {
+        this.expectedPushes = PUSHED_ENTITIES.get().longValue();
+    }
+
+    void onMemberFinished() {
+        this.queriedAt = Long.MIN_VALUE;
+    }
+
+    List<Entity> getEntities(Level p_level, AABB p_area, Predicate<? super Entity> p_filter) {
+        long i = p_level.getGameTime();
+        if (i != this.queriedAt || PUSHED_ENTITIES.get().longValue() != this.expectedPushes) {
+            this.queriedAt = i;
+            this.expectedPushes = PUSHED_ENTITIES.get().longValue();
+            AABB aabb = this.getSearchArea(p_level);
+            this.entities = aabb == null ? List.of() : p_level.getEntities((Entity)null, aabb, p_entity -> true);
+        }
+
+        List<Entity> list = Lists.newArrayList();
+
+        for (Entity entity : this.entities) {
+            if (!entity.isRemoved() && p_area.intersects(entity.getBoundingBox()) && p_filter.test(entity)) {
+                list.add(entity);
+            }
+        }
+
+        return list;
+    }
+
+    @Nullable
+    private AABB getSearchArea(Level p_level) {
+        AABB aabb = null;
+
+        for (PistonMovingBlockEntity pistonmovingblockentity : this.members) {
+            if (!pistonmovingblockentity.isRemoved()) {
+                AABB aabb1 = pistonmovingblockentity.getEntitySearchArea(p_level);
+                if (aabb1 != null) {
+                    aabb = aabb == null ? aabb1 : aabb.minmax(aabb1);
+                }
+            }
+        }
+
+        return aabb;
+    }
+}
@@ -202,6 +202,23 @@ public abstract class ChunkGenerator {
         }
     }
 
+    public CompletableFuture<Pair<BlockPos, Holder<Structure>>> findNearestMapStructureAsync(
+        ServerLevel p_level, HolderSet<Structure> p_structures, BlockPos p_pos, int p_searchRadius, boolean p_skipKnownStructures
+    ) {
+        ChunkGeneratorStructureState chunkgeneratorstructurestate = p_level.getChunkSource().getGeneratorState();
+        Map<StructurePlacement, Set<Holder<Structure>>> map = new Object2ObjectArrayMap<>();
+
+        for (Holder<Structure> holder : p_structures) {
+            for (StructurePlacement structureplacement : chunkgeneratorstructurestate.getPlacementsForStructure(holder)) {
+                map.computeIfAbsent(structureplacement, p_placement -> new ObjectArraySet<>()).add(holder);
+            }
+        }
+
+        return map.isEmpty()
+            ? CompletableFuture.completedFuture(null)
+            : new NearestStructureSearch(p_level, chunkgeneratorstructurestate, map, p_pos, p_searchRadius, p_skipKnownStructures).start();
+    }
+
     @Nullable
     private Pair<BlockPos, Holder<Structure>> getNearestGeneratedStructure(
         Set<Holder<Structure>> p_223182_,
@@ -282,14 +299,9 @@ public abstract class ChunkGenerator {
         for (Holder<Structure> holder : p_223199_) {
             StructureCheckResult structurecheckresult = p_223201_.checkStructurePresence(p_223204_, holder.value(), p_223203_, p_223202_);
             if (structurecheckresult != StructureCheckResult.START_NOT_PRESENT) {
-                if (!p_223202_ && structurecheckresult == StructureCheckResult.START_PRESENT) {
-                    return Pair.of(p_223203_.getLocatePos(p_223204_), holder);
-                }
-
-                ChunkAccess chunkaccess = p_223200_.getChunk(p_223204_.x, p_223204_.z, ChunkStatus.STRUCTURE_STARTS);
-                StructureStart structurestart = p_223201_.getStartForStructure(SectionPos.bottomOf(chunkaccess), holder.value(), chunkaccess);
-                if (structurestart != null && structurestart.isValid() && (!p_223202_ || tryAddReference(p_223201_, structurestart))) {
-                    return Pair.of(p_223203_.getLocatePos(structurestart.getChunkPos()), holder);
+                Pair<BlockPos, Holder<Structure>> pair = confirmStructureAt(holder, structurecheckresult, p_223200_, p_223201_, p_223202_, p_223203_, p_223204_);
+                if (pair != null) {
+                    return pair;
                 }
             }
         }
@@ -297,6 +309,27 @@ public abstract class ChunkGenerator {
         return null;
     }
 
+    @Nullable
+    static Pair<BlockPos, Holder<Structure>> confirmStructureAt(
+        Holder<Structure> p_structure,
+        StructureCheckResult p_checkResult,
+        LevelReader p_level,
+        StructureManager p_structureManager,
+        boolean p_skipKnownStructures,
+        StructurePlacement p_placement,
+        ChunkPos p_chunkPos
+    ) {
+        if (!p_skipKnownStructures && p_checkResult == StructureCheckResult.START_PRESENT) {
+            return Pair.of(p_placement.getLocatePos(p_chunkPos), p_structure);
+        } else {
+            ChunkAccess chunkaccess = p_level.getChunk(p_chunkPos.x, p_chunkPos.z, ChunkStatus.STRUCTURE_STARTS);
+            StructureStart structurestart = p_structureManager.getStartForStructure(SectionPos.bottomOf(chunkaccess), p_structure.value(), chunkaccess);
+            return structurestart != null && structurestart.isValid() && (!p_skipKnownStructures || tryAddReference(p_structureManager, structurestart))
+                ? Pair.of(p_placement.getLocatePos(structurestart.getChunkPos()), p_structure)
+                : null;
+        }
+    }
+
     private static boolean tryAddReference(StructureManager p_223060_, StructureStart p_223061_) {
         if (p_223061_.canBeReferenced()) {
             p_223060_.addReference(p_223061_);
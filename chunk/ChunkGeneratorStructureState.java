@@ -3,9 +3,12 @@ package net.minecraft.world.level.chunk;
 import com.google.common.base.Stopwatch;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -33,6 +36,7 @@ import org.slf4j.Logger;
 
 public class ChunkGeneratorStructureState {
     private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int MAX_KNOWN_WITHOUT_START_REGIONS = 256;
     private final RandomState randomState;
     private final BiomeSource biomeSource;
     private final long levelSeed;
@@ -41,6 +45,7 @@ public class ChunkGeneratorStructureState {
     private final Map<ConcentricRingsStructurePlacement, CompletableFuture<List<ChunkPos>>> ringPositions = new Object2ObjectArrayMap<>();
     private boolean hasGeneratedPositions;
     private final List<Holder<StructureSet>> possibleStructureSets;
+    private final Long2ObjectLinkedOpenHashMap<Map<Structure, BitSet>> knownWithoutStart = new Long2ObjectLinkedOpenHashMap<>();
 
     public static ChunkGeneratorStructureState createForFlat(RandomState p_256240_, long p_256404_, BiomeSource p_256274_, Stream<Holder<StructureSet>> p_256348_) {
         List<Holder<StructureSet>> list = p_256348_.filter(p_255616_ -> hasBiomesForStructureSet(p_255616_.value(), p_256274_)).toList();
@@ -196,4 +201,34 @@ public class ChunkGeneratorStructureState {
     public long getLevelSeed() {
         return this.levelSeed;
     }
+
+    public boolean isKnownWithoutStart(Structure p_structure, ChunkPos p_chunkPos, boolean p_skipReferenced) {
+        int i = getKnownWithoutStartBit(p_chunkPos);
+        synchronized (this.knownWithoutStart) {
+            Map<Structure, BitSet> map = this.knownWithoutStart.getAndMoveToLast(ChunkPos.asLong(p_chunkPos.getRegionX(), p_chunkPos.getRegionZ()));
+            BitSet bitset = map != null ? map.get(p_structure) : null;
+            return bitset != null && (bitset.get(i) || p_skipReferenced && bitset.get(i + 1));
+        }
+    }
+
+    public void markWithoutStart(Structure p_structure, ChunkPos p_chunkPos, boolean p_skipReferenced) {
+        int i = getKnownWithoutStartBit(p_chunkPos) + (p_skipReferenced ? 1 : 0);
+        long j = ChunkPos.asLong(p_chunkPos.getRegionX(), p_chunkPos.getRegionZ());
+        synchronized (this.knownWithoutStart) {
+            Map<Structure, BitSet> map = this.knownWithoutStart.getAndMoveToLast(j);
+            if (map == null) {
+                map = new Reference2ObjectOpenHashMap<>();
+                this.knownWithoutStart.putAndMoveToLast(j, map);
+                if (this.knownWithoutStart.size() > MAX_KNOWN_WITHOUT_START_REGIONS) {
+                    this.knownWithoutStart.removeFirst();
+                }
+            }
+
+            map.computeIfAbsent(p_structure, p_structures -> new BitSet(2048)).set(i);
+        }
+    }
+
+    private static int getKnownWithoutStartBit(ChunkPos p_chunkPos) {
+        return (p_chunkPos.getRegionLocalZ() << 5 | p_chunkPos.getRegionLocalX()) << 1;
+    }
 }
\ No newline at end of file
@@ -272,6 +272,11 @@ public class LevelChunk extends ChunkAccess {
                 return null;
             } else {
                 Block block = p_62866_.getBlock();
+                if (this.level instanceof ServerLevel serverlevel) {
+                    serverlevel.getPathTypeCache().invalidate(p_62865_);
+                    serverlevel.getFluidSpreadCache().invalidate(p_62865_);
+                }
+
                 this.heightmaps.get(Heightmap.Types.MOTION_BLOCKING).update(j, i, l, p_62866_);
                 this.heightmaps.get(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES).update(j, i, l, p_62866_);
                 this.heightmaps.get(Heightmap.Types.OCEAN_FLOOR).update(j, i, l, p_62866_);
@@ -536,6 +541,11 @@ public class LevelChunk extends ChunkAccess {
 
     public void setLoaded(boolean p_62914_) {
         this.loaded = p_62914_;
+        if (this.level instanceof ServerLevel serverlevel) {
+            serverlevel.getPathTypeCache().invalidateChunk(this, this.chunkPos.x, this.chunkPos.z);
+        }
+
+        this.level.getRedstoneWireGraph().invalidateChunk(this.chunkPos.x, this.chunkPos.z);
     }
 
     public Level getLevel() {
@@ -740,6 +750,16 @@ public class LevelChunk extends ChunkAccess {
             return this.blockEntity.isRemoved();
         }
 
+        @Override
+        public boolean isSleeping(long p_gameTime) {
+            return this.blockEntity.isSleeping(p_gameTime);
+        }
+
+        @Override
+        public void tickWhileSleeping(long p_gameTime) {
+            this.blockEntity.tickWhileSleeping(p_gameTime);
+        }
+
         @Override
         public BlockPos getPos() {
             return this.blockEntity.getBlockPos();
@@ -788,6 +808,16 @@ public class LevelChunk extends ChunkAccess {
             return this.ticker.isRemoved();
         }
 
+        @Override
+        public boolean isSleeping(long p_gameTime) {
+            return this.ticker.isSleeping(p_gameTime);
+        }
+
+        @Override
+        public void tickWhileSleeping(long p_gameTime) {
+            this.ticker.tickWhileSleeping(p_gameTime);
+        }
+
         @Override
         public BlockPos getPos() {
             return this.ticker.getPos();
@@ -1,9 +1,12 @@
 package net.minecraft.world.level.chunk;
 
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeResolver;
 import net.minecraft.world.level.biome.Biomes;
@@ -23,6 +26,9 @@ public class LevelChunkSection {
     private short tickingFluidCount;
     private final PalettedContainer<BlockState> states;
     private PalettedContainerRO<Holder<Biome>> biomes;
+    @Nullable
+    private long[] randomTickingPositions;
+    private int version;
 
     private LevelChunkSection(LevelChunkSection p_365547_) {
         this.nonEmptyBlockCount = p_365547_.nonEmptyBlockCount;
@@ -73,6 +79,18 @@ public class LevelChunkSection {
 
         FluidState fluidstate = blockstate.getFluidState();
         FluidState fluidstate1 = p_62995_.getFluidState();
+        if (blockstate != p_62995_) {
+            this.version++;
+        }
+
+        if (this.randomTickingPositions != null) {
+            boolean flag = isRandomlyTicking(blockstate);
+            if (flag != isRandomlyTicking(p_62995_)) {
+                int i = getIndex(p_62992_, p_62993_, p_62994_);
+                this.randomTickingPositions[i >> 6] ^= 1L << i;
+            }
+        }
+
         if (!blockstate.isAir()) {
             this.nonEmptyBlockCount--;
             if (blockstate.isRandomlyTicking()) {
@@ -143,6 +161,50 @@ public class LevelChunkSection {
         this.nonEmptyBlockCount = (short)levelchunksection$1blockcounter.nonEmptyBlockCount;
         this.tickingBlockCount = (short)levelchunksection$1blockcounter.tickingBlockCount;
         this.tickingFluidCount = (short)levelchunksection$1blockcounter.tickingFluidCount;
+        this.randomTickingPositions = null;
+        this.version++;
+    }
+
+    private static boolean isRandomlyTicking(BlockState p_state) {
+        return p_state.isRandomlyTicking() || p_state.getFluidState().isRandomlyTicking();
+    }
+
+    private static int getIndex(int p_x, int p_y, int p_z) {
+        return p_y << 8 | p_z << 4 | p_x;
+    }
+
+    private void buildRandomTickingPositions() {
+        long[] along = new long[64];
+
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                for (int k = 0; k < 16; k++) {
+                    if (isRandomlyTicking(this.states.get(k, i, j))) {
+                        int l = getIndex(k, i, j);
+                        along[l >> 6] |= 1L << l;
+                    }
+                }
+            }
+        }
+
+        this.randomTickingPositions = along;
+    }
+
+    public void sampleRandomTickingPositions(Level p_level, int p_draws, IntConsumer p_consumer) {
+        if (this.randomTickingPositions == null) {
+            this.buildRandomTickingPositions();
+        }
+
+        for (int i = 0; i < p_draws; i++) {
+            int j = p_level.getBlockRandomSectionIndex();
+            if ((this.randomTickingPositions[j >> 6] & 1L << j) != 0L) {
+                p_consumer.accept(j);
+            }
+        }
+    }
+
+    public int getVersion() {
+        return this.version;
     }
 
     public PalettedContainer<BlockState> getStates() {
@@ -156,6 +218,7 @@ public class LevelChunkSection {
     public void read(FriendlyByteBuf p_63005_) {
         this.nonEmptyBlockCount = p_63005_.readShort();
         this.states.read(p_63005_);
+        this.randomTickingPositions = null;
         PalettedContainer<Holder<Biome>> palettedcontainer = this.biomes.recreate();
         palettedcontainer.read(p_63005_);
         this.biomes = palettedcontainer;
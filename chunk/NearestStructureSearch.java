@@ -0,0 +1,277 @@
+package net.minecraft.world.level.chunk;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.logging.LogUtils;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import net.minecraft.DefaultUncaughtExceptionHandler;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureCheckResult;
+import net.minecraft.world.level.levelgen.structure.placement.ConcentricRingsStructurePlacement;
+import net.minecraft.world.level.levelgen.structure.placement.RandomSpreadStructurePlacement;
+import net.minecraft.world.level.levelgen.structure.placement.StructurePlacement;
+import org.slf4j.Logger;
+
+class NearestStructureSearch {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int MAX_SCAN_THREADS = Mth.clamp(Runtime.getRuntime().availableProcessors() / 4, 1, 4);
+    private static final AtomicInteger SCAN_THREAD_COUNT = new AtomicInteger(1);
+    private static final ThreadPoolExecutor SCAN_EXECUTOR = createScanExecutor();
+    private final ServerLevel level;
+    private final ChunkGeneratorStructureState state;
+    private final StructureManager structureManager;
+    private final Executor mainThreadExecutor;
+    private final List<Entry<StructurePlacement, Set<Holder<Structure>>>> concentricPlacements = new ArrayList<>();
+    private final List<Entry<StructurePlacement, Set<Holder<Structure>>>> randomSpreadPlacements = new ArrayList<>();
+    private final BlockPos origin;
+    private final int searchRadius;
+    private final boolean skipKnownStructures;
+    private final CompletableFuture<Pair<BlockPos, Holder<Structure>>> result = new CompletableFuture<>();
+    @Nullable
+    private Pair<BlockPos, Holder<Structure>> nearest;
+    private double nearestDistance = Double.MAX_VALUE;
+
+    NearestStructureSearch(
+        ServerLevel p_level,
+        ChunkGeneratorStructureState p_state,
+        Map<StructurePlacement, Set<Holder<Structure>>> p_placements,
+        BlockPos p_origin,
+        int p_searchRadius,
+        boolean p_skipKnownStructures
+    ) {
+        this.level = p_level;
+        this.state = p_state;
+        this.structureManager = p_level.structureManager();
+        this.mainThreadExecutor = p_level.getServer();
+        this.origin = p_origin.immutable();
+        this.searchRadius = p_searchRadius;
+        this.skipKnownStructures = p_skipKnownStructures;
+
+        for (Entry<StructurePlacement, Set<Holder<Structure>>> entry : p_placements.entrySet()) {
+            if (entry.getKey() instanceof ConcentricRingsStructurePlacement) {
+                this.concentricPlacements.add(entry);
+            } else if (entry.getKey() instanceof RandomSpreadStructurePlacement) {
+                this.randomSpreadPlacements.add(entry);
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor createScanExecutor() {
+        ThreadPoolExecutor threadpoolexecutor = new ThreadPoolExecutor(
+            MAX_SCAN_THREADS, MAX_SCAN_THREADS, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), p_runnable -> {
+                Thread thread = new Thread(p_runnable, "Structure-Search-" + SCAN_THREAD_COUNT.getAndIncrement());
+                thread.setDaemon(true);
+                thread.setUncaughtExceptionHandler(new DefaultUncaughtExceptionHandler(LOGGER));
+                return thread;
+            }
+        );
+        threadpoolexecutor.allowCoreThreadTimeOut(true);
+        return threadpoolexecutor;
+    }
+
+    CompletableFuture<Pair<BlockPos, Holder<Structure>>> start() {
+        List<CompletableFuture<List<NearestStructureSearch.Candidate>>> list = new ArrayList<>(this.concentricPlacements.size());
+
+        for (Entry<StructurePlacement, Set<Holder<Structure>>> entry : this.concentricPlacements) {
+            list.add(
+                CompletableFuture.supplyAsync(
+                    () -> this.scanConcentricRings((ConcentricRingsStructurePlacement)entry.getKey(), entry.getValue()), SCAN_EXECUTOR
+                )
+            );
+        }
+
+        this.thenOnMainThread(list, () -> {
+            for (int i = 0; i < list.size(); i++) {
+                this.confirmNearest(this.concentricPlacements.get(i).getKey(), list.get(i).join());
+            }
+
+            this.searchRing(0);
+        });
+        return this.result;
+    }
+
+    private void searchRing(int p_ring) {
+        if (!this.result.isDone()) {
+            List<Entry<StructurePlacement, Set<Holder<Structure>>>> list = new ArrayList<>();
+            if (p_ring <= this.searchRadius) {
+                for (Entry<StructurePlacement, Set<Holder<Structure>>> entry : this.randomSpreadPlacements) {
+                    if (this.canContainCloser((RandomSpreadStructurePlacement)entry.getKey(), p_ring)) {
+                        list.add(entry);
+                    }
+                }
+            }
+
+            if (list.isEmpty()) {
+                this.result.complete(this.nearest);
+            } else {
+                List<CompletableFuture<List<NearestStructureSearch.Candidate>>> list1 = new ArrayList<>(list.size());
+
+                for (Entry<StructurePlacement, Set<Holder<Structure>>> entry1 : list) {
+                    list1.add(
+                        CompletableFuture.supplyAsync(
+                            () -> this.scanRing((RandomSpreadStructurePlacement)entry1.getKey(), entry1.getValue(), p_ring), SCAN_EXECUTOR
+                        )
+                    );
+                }
+
+                this.thenOnMainThread(list1, () -> {
+                    boolean flag = false;
+
+                    for (int i = 0; i < list1.size(); i++) {
+                        flag |= this.confirmNearest(list.get(i).getKey(), list1.get(i).join());
+                    }
+
+                    if (flag) {
+                        this.result.complete(this.nearest);
+                    } else {
+                        this.searchRing(p_ring + 1);
+                    }
+                });
+            }
+        }
+    }
+
+    private void thenOnMainThread(List<? extends CompletableFuture<?>> p_futures, Runnable p_task) {
+        CompletableFuture.allOf(p_futures.toArray(CompletableFuture[]::new)).thenRunAsync(() -> {
+            if (!this.result.isDone()) {
+                p_task.run();
+            }
+        }, this.mainThreadExecutor).whenComplete((p_void, p_throwable) -> {
+            if (p_throwable != null) {
+                this.result.completeExceptionally(p_throwable);
+            }
+        });
+    }
+
+    private boolean canContainCloser(RandomSpreadStructurePlacement p_placement, int p_ring) {
+        double d0 = (double)Math.max(0, ((p_ring - 1) * p_placement.spacing() - 1) * 16);
+        return d0 * d0 < this.nearestDistance;
+    }
+
+    private boolean confirmNearest(StructurePlacement p_placement, List<NearestStructureSearch.Candidate> p_candidates) {
+        for (NearestStructureSearch.Candidate neareststructuresearch$candidate : p_candidates) {
+            if (this.result.isDone()) {
+                return false;
+            }
+
+            Pair<BlockPos, Holder<Structure>> pair = ChunkGenerator.confirmStructureAt(
+                neareststructuresearch$candidate.structure,
+                neareststructuresearch$candidate.checkResult,
+                this.level,
+                this.structureManager,
+                this.skipKnownStructures,
+                p_placement,
+                neareststructuresearch$candidate.chunkPos
+            );
+            if (pair != null) {
+                double d0 = this.origin.distSqr(pair.getFirst());
+                if (d0 < this.nearestDistance) {
+                    this.nearestDistance = d0;
+                    this.nearest = pair;
+                }
+
+                return true;
+            }
+
+            this.state.markWithoutStart(neareststructuresearch$candidate.structure.value(), neareststructuresearch$candidate.chunkPos, this.skipKnownStructures);
+        }
+
+        return false;
+    }
+
+    private List<NearestStructureSearch.Candidate> scanConcentricRings(ConcentricRingsStructurePlacement p_placement, Set<Holder<Structure>> p_structures) {
+        List<ChunkPos> list = this.state.getRingPositionsFor(p_placement);
+        if (list == null) {
+            throw new IllegalStateException("Somehow tried to find structures for a placement that doesn't exist");
+        } else {
+            List<ChunkPos> list1 = new ArrayList<>(list);
+            list1.sort(
+                Comparator.comparingDouble(
+                    p_chunkPos -> this.origin
+                        .distSqr(new Vec3i(SectionPos.sectionToBlockCoord(p_chunkPos.x, 8), 32, SectionPos.sectionToBlockCoord(p_chunkPos.z, 8)))
+                )
+            );
+            List<NearestStructureSearch.Candidate> list2 = new ArrayList<>();
+
+            for (ChunkPos chunkpos : list1) {
+                if (this.scanChunk(p_placement, p_structures, chunkpos, list2)) {
+                    break;
+                }
+            }
+
+            return list2;
+        }
+    }
+
+    private List<NearestStructureSearch.Candidate> scanRing(RandomSpreadStructurePlacement p_placement, Set<Holder<Structure>> p_structures, int p_ring) {
+        int i = SectionPos.blockToSectionCoord(this.origin.getX());
+        int j = SectionPos.blockToSectionCoord(this.origin.getZ());
+        int k = p_placement.spacing();
+        long l = this.state.getLevelSeed();
+        List<NearestStructureSearch.Candidate> list = new ArrayList<>();
+
+        for (int i1 = -p_ring; i1 <= p_ring; i1++) {
+            boolean flag = i1 == -p_ring || i1 == p_ring;
+
+            for (int j1 = -p_ring; j1 <= p_ring; j1++) {
+                boolean flag1 = j1 == -p_ring || j1 == p_ring;
+                if (flag || flag1) {
+                    ChunkPos chunkpos = p_placement.getPotentialStructureChunk(l, i + k * i1, j + k * j1);
+                    if (this.scanChunk(p_placement, p_structures, chunkpos, list)) {
+                        return list;
+                    }
+                }
+            }
+        }
+
+        return list;
+    }
+
+    private boolean scanChunk(
+        StructurePlacement p_placement, Set<Holder<Structure>> p_structures, ChunkPos p_chunkPos, List<NearestStructureSearch.Candidate> p_candidates
+    ) {
+        if (this.result.isDone()) {
+            return true;
+        } else {
+            for (Holder<Structure> holder : p_structures) {
+                Structure structure = holder.value();
+                if (!this.state.isKnownWithoutStart(structure, p_chunkPos, this.skipKnownStructures)) {
+                    StructureCheckResult structurecheckresult = this.structureManager
+                        .checkStructurePresence(p_chunkPos, structure, p_placement, this.skipKnownStructures);
+                    if (structurecheckresult == StructureCheckResult.START_NOT_PRESENT) {
+                        this.state.markWithoutStart(structure, p_chunkPos, this.skipKnownStructures);
+                    } else {
+                        p_candidates.add(new NearestStructureSearch.Candidate(p_chunkPos, holder, structurecheckresult));
+                        if (!this.skipKnownStructures && structurecheckresult == StructureCheckResult.START_PRESENT) {
+                            return true;
+                        }
+                    }
+                }
+            }
+
+            return false;
+        }
+    }
+
+    static record Candidate(ChunkPos chunkPos, Holder<Structure> structure, StructureCheckResult checkResult) {
+    }
+}
@@ -128,6 +128,10 @@ public class ChunkStorage implements AutoCloseable {
         return this.worker;
     }
 
+    public IOWorker ioWorker() {
+        return this.worker;
+    }
+
     protected RegionStorageInfo storageInfo() {
         return this.worker.storageInfo();
     }
@@ -5,6 +5,7 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.BitSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Optional;
 import java.util.SequencedMap;
@@ -167,6 +168,28 @@ public class IOWorker implements ChunkScanAccess, AutoCloseable {
             })) : completablefuture.thenCompose(p_223477_ -> this.submitTask(() -> null));
     }
 
+    public <T> CompletableFuture<T> runWithRegionFile(int p_regionX, int p_regionZ, Supplier<T> p_task) {
+        return this.submitThrowingTask(() -> {
+            Iterator<Entry<ChunkPos, IOWorker.PendingStore>> iterator = this.pendingWrites.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Entry<ChunkPos, IOWorker.PendingStore> entry = iterator.next();
+                ChunkPos chunkpos = entry.getKey();
+                if (chunkpos.getRegionX() == p_regionX && chunkpos.getRegionZ() == p_regionZ) {
+                    iterator.remove();
+                    this.runStore(chunkpos, entry.getValue());
+                }
+            }
+
+            this.storage.flush(p_regionX, p_regionZ);
+            return p_task.get();
+        });
+    }
+
+    public Path regionFolder() {
+        return this.storage.folder();
+    }
+
     @Override
     public CompletableFuture<Void> scanChunk(ChunkPos p_196939_, StreamTagVisitor p_196940_) {
         return this.submitThrowingTask(() -> {
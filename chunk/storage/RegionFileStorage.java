@@ -104,6 +104,17 @@ public final class RegionFileStorage implements AutoCloseable {
         }
     }
 
+    public void flush(int p_regionX, int p_regionZ) throws IOException {
+        RegionFile regionfile = this.regionCache.get(ChunkPos.asLong(p_regionX, p_regionZ));
+        if (regionfile != null) {
+            regionfile.flush();
+        }
+    }
+
+    public Path folder() {
+        return this.folder;
+    }
+
     public RegionStorageInfo info() {
         return this.info;
     }
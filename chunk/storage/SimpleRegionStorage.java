@@ -45,6 +45,10 @@ public class SimpleRegionStorage implements AutoCloseable {
         return this.worker.synchronize(p_334675_);
     }
 
+    public IOWorker ioWorker() {
+        return this.worker;
+    }
+
     @Override
     public void close() throws IOException {
         this.worker.close();
@@ -4,6 +4,8 @@ import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import com.mojang.serialization.codecs.RecordCodecBuilder.Instance;
 import java.util.Optional;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.gameevent.GameEvent;
 import org.apache.commons.lang3.tuple.Pair;
 
 public class VibrationSelector {
@@ -25,27 +27,27 @@ public class VibrationSelector {
     }
 
     public void addCandidate(VibrationInfo p_250149_, long p_249749_) {
-        if (this.shouldReplaceVibration(p_250149_, p_249749_)) {
+        if (this.wouldAccept(p_250149_.gameEvent(), p_250149_.distance(), p_249749_)) {
             this.currentVibrationData = Optional.of(Pair.of(p_250149_, p_249749_));
         }
     }
 
-    private boolean shouldReplaceVibration(VibrationInfo p_248697_, long p_249040_) {
+    public boolean wouldAccept(Holder<GameEvent> p_gameEvent, float p_distance, long p_tick) {
         if (this.currentVibrationData.isEmpty()) {
             return true;
         } else {
             Pair<VibrationInfo, Long> pair = this.currentVibrationData.get();
             long i = pair.getRight();
-            if (p_249040_ != i) {
+            if (p_tick != i) {
                 return false;
             } else {
                 VibrationInfo vibrationinfo = pair.getLeft();
-                if (p_248697_.distance() < vibrationinfo.distance()) {
+                if (p_distance < vibrationinfo.distance()) {
                     return true;
                 } else {
-                    return p_248697_.distance() > vibrationinfo.distance()
+                    return p_distance > vibrationinfo.distance()
                         ? false
-                        : VibrationSystem.getGameEventFrequency(p_248697_.gameEvent()) > VibrationSystem.getGameEventFrequency(vibrationinfo.gameEvent());
+                        : VibrationSystem.getGameEventFrequency(p_gameEvent) > VibrationSystem.getGameEventFrequency(vibrationinfo.gameEvent());
                 }
             }
         }
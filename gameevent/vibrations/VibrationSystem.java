@@ -215,6 +215,8 @@ public interface VibrationSystem {
                     Vec3 vec3 = optional.get();
                     if (!vibrationsystem$user.canReceiveVibration(p_282254_, BlockPos.containing(p_282426_), p_335813_, p_283664_)) {
                         return false;
+                    } else if (!vibrationsystem$data.selectionStrategy.wouldAccept(p_335813_, (float)p_282426_.distanceTo(vec3), p_282254_.getGameTime())) {
+                        return false;
                     } else if (isOccluded(p_282254_, p_282426_, vec3)) {
                         return false;
                     } else {
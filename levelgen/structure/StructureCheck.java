@@ -1,16 +1,27 @@
 package net.minecraft.world.level.levelgen.structure;
 
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonElement;
 import com.mojang.datafixers.DataFixer;
 import com.mojang.logging.LogUtils;
-import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
-import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import com.mojang.serialization.JsonOps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2BooleanMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
-import java.util.HashMap;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
 import javax.annotation.Nullable;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
@@ -19,6 +30,7 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.IntTag;
 import net.minecraft.nbt.visitors.CollectFields;
 import net.minecraft.nbt.visitors.FieldSelector;
+import net.minecraft.resources.RegistryOps;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.datafix.DataFixTypes;
@@ -34,9 +46,10 @@ import net.minecraft.world.level.levelgen.structure.placement.StructurePlacement
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
 import org.slf4j.Logger;
 
-public class StructureCheck {
+public class StructureCheck implements AutoCloseable {
     private static final Logger LOGGER = LogUtils.getLogger();
     private static final int NO_STRUCTURE = -1;
+    private static final int MAX_CACHED_CHUNKS = 8192;
     private final ChunkScanAccess storageAccess;
     private final RegistryAccess registryAccess;
     private final StructureTemplateManager structureTemplateManager;
@@ -47,8 +60,12 @@ public class StructureCheck {
     private final BiomeSource biomeSource;
     private final long seed;
     private final DataFixer fixerUpper;
-    private final Long2ObjectMap<Object2IntMap<Structure>> loadedChunks = new Long2ObjectOpenHashMap<>();
-    private final Map<Structure, Long2BooleanMap> featureChecks = new HashMap<>();
+    private final Long2ObjectLinkedOpenHashMap<Object2IntMap<Structure>> loadedChunks = new Long2ObjectLinkedOpenHashMap<>();
+    private final Long2ObjectLinkedOpenHashMap<Object2BooleanMap<Structure>> featureChecks = new Long2ObjectLinkedOpenHashMap<>();
+    private final Long2ObjectMap<Set<Structure>> referencedStarts = new Long2ObjectOpenHashMap<>();
+    @Nullable
+    private final StructureCheckIndex index;
+    private final Reference2IntMap<Structure> indexSlots = new Reference2IntOpenHashMap<>();
 
     public StructureCheck(
         ChunkScanAccess p_226712_,
@@ -61,6 +78,22 @@ public class StructureCheck {
         BiomeSource p_226719_,
         long p_226720_,
         DataFixer p_226721_
+    ) {
+        this(p_226712_, p_226713_, p_226714_, p_226715_, p_226716_, p_226717_, p_226718_, p_226719_, p_226720_, p_226721_, null);
+    }
+
+    public StructureCheck(
+        ChunkScanAccess p_226712_,
+        RegistryAccess p_226713_,
+        StructureTemplateManager p_226714_,
+        ResourceKey<Level> p_226715_,
+        ChunkGenerator p_226716_,
+        RandomState p_226717_,
+        LevelHeightAccessor p_226718_,
+        BiomeSource p_226719_,
+        long p_226720_,
+        DataFixer p_226721_,
+        @Nullable Path p_indexDirectory
     ) {
         this.storageAccess = p_226712_;
         this.registryAccess = p_226713_;
@@ -72,24 +105,120 @@ public class StructureCheck {
         this.biomeSource = p_226719_;
         this.seed = p_226720_;
         this.fixerUpper = p_226721_;
+        this.indexSlots.defaultReturnValue(-1);
+        this.index = p_indexDirectory != null ? this.openIndex(p_indexDirectory) : null;
+    }
+
+    @Nullable
+    private StructureCheckIndex openIndex(Path p_directory) {
+        RegistryOps<JsonElement> registryops = this.registryAccess.createSerializationContext(JsonOps.INSTANCE);
+        String s = this.seed + "/" + fingerprint(ChunkGenerator.CODEC.encodeStart(registryops, this.chunkGenerator).result().map(Object::toString).orElse(""));
+
+        StructureCheckIndex structurecheckindex;
+        try {
+            structurecheckindex = StructureCheckIndex.open(p_directory, s);
+        } catch (IOException ioexception) {
+            LOGGER.warn("Failed to open structure check index in {}", p_directory, ioexception);
+            return null;
+        }
+
+        for (Entry<ResourceKey<Structure>, Structure> entry : this.registryAccess.lookupOrThrow(Registries.STRUCTURE).entrySet()) {
+            String s1 = Structure.DIRECT_CODEC.encodeStart(registryops, entry.getValue()).result().map(Object::toString).orElse("");
+            int i = structurecheckindex.getSlot(entry.getKey().location() + "@" + fingerprint(s1));
+            if (i != -1) {
+                this.indexSlots.put(entry.getValue(), i);
+            }
+        }
+
+        return structurecheckindex;
+    }
+
+    private static String fingerprint(String p_encoded) {
+        return Hashing.sha256().hashString(p_encoded, StandardCharsets.UTF_8).toString();
     }
 
     public StructureCheckResult checkStart(ChunkPos p_226730_, Structure p_226731_, StructurePlacement p_327807_, boolean p_226732_) {
         long i = p_226730_.toLong();
-        Object2IntMap<Structure> object2intmap = this.loadedChunks.get(i);
-        if (object2intmap != null) {
-            return this.checkStructureInfo(object2intmap, p_226731_, p_226732_);
-        } else {
-            StructureCheckResult structurecheckresult = this.tryLoadFromStorage(p_226730_, p_226731_, p_226732_, i);
-            if (structurecheckresult != null) {
-                return structurecheckresult;
-            } else if (!p_327807_.applyAdditionalChunkRestrictions(p_226730_.x, p_226730_.z, this.seed)) {
+        synchronized (this) {
+            Object2IntMap<Structure> object2intmap = this.loadedChunks.getAndMoveToLast(i);
+            if (object2intmap != null) {
+                return this.checkStructureInfo(i, object2intmap, p_226731_, p_226732_);
+            }
+        }
+
+        byte b0 = this.getIndexedState(i, p_226731_);
+        switch (b0) {
+            case StructureCheckIndex.START_ABSENT:
+            case StructureCheckIndex.CHECK_FAILED:
                 return StructureCheckResult.START_NOT_PRESENT;
-            } else {
-                boolean flag = this.featureChecks
-                    .computeIfAbsent(p_226731_, p_226739_ -> new Long2BooleanOpenHashMap())
-                    .computeIfAbsent(i, p_226728_ -> this.canCreateStructure(p_226730_, p_226731_));
-                return !flag ? StructureCheckResult.START_NOT_PRESENT : StructureCheckResult.CHUNK_LOAD_NEEDED;
+            case StructureCheckIndex.START_UNREFERENCED:
+                if (!p_226732_) {
+                    return StructureCheckResult.START_PRESENT;
+                } else if (this.isReferenced(i, p_226731_)) {
+                    return StructureCheckResult.START_NOT_PRESENT;
+                } else {
+                    StructureCheckResult structurecheckresult1 = this.tryLoadFromStorage(p_226730_, p_226731_, true, i);
+                    return structurecheckresult1 != null ? structurecheckresult1 : StructureCheckResult.START_PRESENT;
+                }
+            case StructureCheckIndex.START_REFERENCED:
+                return p_226732_ ? StructureCheckResult.START_NOT_PRESENT : StructureCheckResult.START_PRESENT;
+            case StructureCheckIndex.CHECK_PASSED:
+                return StructureCheckResult.CHUNK_LOAD_NEEDED;
+            default:
+                StructureCheckResult structurecheckresult = this.tryLoadFromStorage(p_226730_, p_226731_, p_226732_, i);
+                if (structurecheckresult != null) {
+                    return structurecheckresult;
+                } else if (!p_327807_.applyAdditionalChunkRestrictions(p_226730_.x, p_226730_.z, this.seed)) {
+                    return StructureCheckResult.START_NOT_PRESENT;
+                } else {
+                    Boolean obool = this.getCachedFeatureCheck(i, p_226731_);
+                    boolean flag;
+                    if (obool != null) {
+                        flag = obool;
+                    } else {
+                        flag = this.canCreateStructure(p_226730_, p_226731_);
+                        this.cacheFeatureCheck(i, p_226731_, flag);
+                        this.setIndexedCheck(i, p_226731_, flag);
+                    }
+
+                    return !flag ? StructureCheckResult.START_NOT_PRESENT : StructureCheckResult.CHUNK_LOAD_NEEDED;
+                }
+        }
+    }
+
+    @Nullable
+    private synchronized Boolean getCachedFeatureCheck(long p_chunkPos, Structure p_structure) {
+        Object2BooleanMap<Structure> object2booleanmap = this.featureChecks.getAndMoveToLast(p_chunkPos);
+        return object2booleanmap != null && object2booleanmap.containsKey(p_structure) ? object2booleanmap.getBoolean(p_structure) : null;
+    }
+
+    private synchronized void cacheFeatureCheck(long p_chunkPos, Structure p_structure, boolean p_canCreate) {
+        Object2BooleanMap<Structure> object2booleanmap = this.featureChecks.getAndMoveToLast(p_chunkPos);
+        if (object2booleanmap == null) {
+            object2booleanmap = new Reference2BooleanOpenHashMap<>();
+            this.featureChecks.putAndMoveToLast(p_chunkPos, object2booleanmap);
+            if (this.featureChecks.size() > MAX_CACHED_CHUNKS) {
+                this.featureChecks.removeFirst();
+            }
+        }
+
+        object2booleanmap.put(p_structure, p_canCreate);
+    }
+
+    private byte getIndexedState(long p_chunkPos, Structure p_structure) {
+        if (this.index == null) {
+            return StructureCheckIndex.UNKNOWN;
+        } else {
+            int i = this.indexSlots.getInt(p_structure);
+            return i == -1 ? StructureCheckIndex.UNKNOWN : this.index.get(p_chunkPos, i);
+        }
+    }
+
+    private void setIndexedCheck(long p_chunkPos, Structure p_structure, boolean p_canCreate) {
+        if (this.index != null) {
+            int i = this.indexSlots.getInt(p_structure);
+            if (i != -1) {
+                this.index.setIfUnknown(p_chunkPos, i, p_canCreate ? StructureCheckIndex.CHECK_PASSED : StructureCheckIndex.CHECK_FAILED);
             }
         }
     }
@@ -147,8 +276,7 @@ public class StructureCheck {
                 if (object2intmap == null) {
                     return null;
                 } else {
-                    this.storeFullResults(p_226737_, object2intmap);
-                    return this.checkStructureInfo(object2intmap, p_226735_, p_226736_);
+                    return this.storeScannedResults(p_226737_, object2intmap, p_226735_, p_226736_);
                 }
             }
         }
@@ -197,9 +325,16 @@ public class StructureCheck {
         return p_197299_.isEmpty() ? Object2IntMaps.emptyMap() : p_197299_;
     }
 
-    private StructureCheckResult checkStructureInfo(Object2IntMap<Structure> p_226752_, Structure p_226753_, boolean p_226754_) {
+    private synchronized StructureCheckResult checkStructureInfo(long p_chunkPos, Object2IntMap<Structure> p_226752_, Structure p_226753_, boolean p_226754_) {
         int i = p_226752_.getOrDefault(p_226753_, -1);
-        return i == -1 || p_226754_ && i != 0 ? StructureCheckResult.START_NOT_PRESENT : StructureCheckResult.START_PRESENT;
+        return i == -1 || p_226754_ && (i != 0 || this.isReferenced(p_chunkPos, p_226753_))
+            ? StructureCheckResult.START_NOT_PRESENT
+            : StructureCheckResult.START_PRESENT;
+    }
+
+    private synchronized boolean isReferenced(long p_chunkPos, Structure p_structure) {
+        Set<Structure> set = this.referencedStarts.get(p_chunkPos);
+        return set != null && set.contains(p_structure);
     }
 
     public void onStructureLoad(ChunkPos p_197283_, Map<Structure, StructureStart> p_197284_) {
@@ -213,19 +348,54 @@ public class StructureCheck {
         this.storeFullResults(i, object2intmap);
     }
 
-    private void storeFullResults(long p_197264_, Object2IntMap<Structure> p_197265_) {
-        this.loadedChunks.put(p_197264_, deduplicateEmptyMap(p_197265_));
-        this.featureChecks.values().forEach(p_209956_ -> p_209956_.remove(p_197264_));
+    private synchronized StructureCheckResult storeScannedResults(long p_chunkPos, Object2IntMap<Structure> p_structures, Structure p_structure, boolean p_skipKnownStructures) {
+        Object2IntMap<Structure> object2intmap = this.loadedChunks.getAndMoveToLast(p_chunkPos);
+        if (object2intmap == null) {
+            this.storeFullResults(p_chunkPos, p_structures);
+            object2intmap = p_structures;
+        }
+
+        return this.checkStructureInfo(p_chunkPos, object2intmap, p_structure, p_skipKnownStructures);
     }
 
-    public void incrementReference(ChunkPos p_226723_, Structure p_226724_) {
-        this.loadedChunks.compute(p_226723_.toLong(), (p_226745_, p_226746_) -> {
-            if (p_226746_ == null || p_226746_.isEmpty()) {
-                p_226746_ = new Object2IntOpenHashMap<>();
+    private synchronized void storeFullResults(long p_197264_, Object2IntMap<Structure> p_197265_) {
+        this.cacheFullResults(p_197264_, deduplicateEmptyMap(p_197265_));
+        this.featureChecks.remove(p_197264_);
+        if (this.index != null) {
+            for (Reference2IntMap.Entry<Structure> entry : this.indexSlots.reference2IntEntrySet()) {
+                int i = p_197265_.getOrDefault(entry.getKey(), -1);
+                byte b0 = i == -1 ? StructureCheckIndex.START_ABSENT : (i == 0 ? StructureCheckIndex.START_UNREFERENCED : StructureCheckIndex.START_REFERENCED);
+                this.index.set(p_197264_, entry.getIntValue(), b0);
             }
+        }
+    }
 
-            p_226746_.computeInt(p_226724_, (p_226741_, p_226742_) -> p_226742_ == null ? 1 : p_226742_ + 1);
-            return p_226746_;
-        });
+    private void cacheFullResults(long p_chunkPos, Object2IntMap<Structure> p_structures) {
+        this.loadedChunks.putAndMoveToLast(p_chunkPos, p_structures);
+        if (this.loadedChunks.size() > MAX_CACHED_CHUNKS) {
+            this.loadedChunks.removeFirst();
+        }
+    }
+
+    public synchronized void incrementReference(ChunkPos p_226723_, Structure p_226724_) {
+        long i = p_226723_.toLong();
+        Object2IntMap<Structure> object2intmap = this.loadedChunks.getAndMoveToLast(i);
+        if (object2intmap != null) {
+            if (object2intmap.isEmpty()) {
+                object2intmap = new Object2IntOpenHashMap<>();
+                this.cacheFullResults(i, object2intmap);
+            }
+
+            object2intmap.computeInt(p_226724_, (p_226741_, p_226742_) -> p_226742_ == null ? 1 : p_226742_ + 1);
+        }
+
+        this.referencedStarts.computeIfAbsent(i, p_chunkPos -> new ReferenceOpenHashSet<>()).add(p_226724_);
+    }
+
+    @Override
+    public void close() {
+        if (this.index != null) {
+            this.index.close();
+        }
     }
 }
\ No newline at end of file
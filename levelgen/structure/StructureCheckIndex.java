@@ -0,0 +1,177 @@
+package net.minecraft.world.level.levelgen.structure;
+
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import net.minecraft.world.level.ChunkPos;
+import org.slf4j.Logger;
+
+public class StructureCheckIndex implements AutoCloseable {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    public static final byte UNKNOWN = 0;
+    public static final byte START_ABSENT = 1;
+    public static final byte START_UNREFERENCED = 2;
+    public static final byte START_REFERENCED = 3;
+    public static final byte CHECK_FAILED = 4;
+    public static final byte CHECK_PASSED = 5;
+    private static final int CHUNKS_PER_REGION = 1024;
+    private static final int MAX_OPEN_REGIONS = 256;
+    private static final String PALETTE_FILE = "palette.txt";
+    private static final String REGION_EXTENSION = ".sci";
+    private static final String FINGERPRINT_PREFIX = "#";
+    private final Path directory;
+    private final List<String> palette;
+    private final Object2IntMap<String> slots = new Object2IntOpenHashMap<>();
+    private final Long2ObjectLinkedOpenHashMap<MappedByteBuffer> regions = new Long2ObjectLinkedOpenHashMap<>();
+
+    private StructureCheckIndex(Path p_directory, List<String> p_palette) {
+        this.directory = p_directory;
+        this.palette = p_palette;
+        this.slots.defaultReturnValue(-1);
+
+        for (int i = 1; i < p_palette.size(); i++) {
+            this.slots.put(p_palette.get(i), i - 1);
+        }
+    }
+
+    public static StructureCheckIndex open(Path p_directory, String p_fingerprint) throws IOException {
+        Files.createDirectories(p_directory);
+        Path path = p_directory.resolve(PALETTE_FILE);
+        List<String> list = Files.exists(path) ? new ArrayList<>(Files.readAllLines(path, StandardCharsets.UTF_8)) : new ArrayList<>();
+        String s = FINGERPRINT_PREFIX + p_fingerprint;
+        if (list.isEmpty() || !list.get(0).equals(s)) {
+            if (!list.isEmpty()) {
+                LOGGER.info("Discarding structure check index in {} built for different generation settings", p_directory);
+            }
+
+            try (Stream<Path> stream = Files.list(p_directory)) {
+                for (Path path1 : stream.filter(p_path -> p_path.getFileName().toString().endsWith(REGION_EXTENSION)).toList()) {
+                    Files.delete(path1);
+                }
+            }
+
+            list.clear();
+            list.add(s);
+            writePalette(p_directory, list);
+        }
+
+        return new StructureCheckIndex(p_directory, list);
+    }
+
+    private static void writePalette(Path p_directory, List<String> p_palette) throws IOException {
+        Path path = p_directory.resolve(PALETTE_FILE);
+        Path path1 = p_directory.resolve(PALETTE_FILE + ".tmp");
+        Files.write(path1, p_palette, StandardCharsets.UTF_8);
+        Files.move(path1, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public synchronized int getSlot(String p_key) {
+        int i = this.slots.getInt(p_key);
+        if (i == -1) {
+            this.palette.add(p_key);
+
+            try {
+                writePalette(this.directory, this.palette);
+            } catch (IOException ioexception) {
+                LOGGER.warn("Failed to save structure check index palette in {}", this.directory, ioexception);
+                this.palette.remove(this.palette.size() - 1);
+                return -1;
+            }
+
+            i = this.palette.size() - 2;
+            this.slots.put(p_key, i);
+            this.closeRegions();
+        }
+
+        return i;
+    }
+
+    public synchronized byte get(long p_chunkPos, int p_slot) {
+        MappedByteBuffer mappedbytebuffer = this.getRegion(p_chunkPos, false);
+        return mappedbytebuffer == null ? UNKNOWN : mappedbytebuffer.get(getOffset(p_chunkPos, p_slot));
+    }
+
+    public synchronized void set(long p_chunkPos, int p_slot, byte p_state) {
+        MappedByteBuffer mappedbytebuffer = this.getRegion(p_chunkPos, true);
+        if (mappedbytebuffer != null) {
+            mappedbytebuffer.put(getOffset(p_chunkPos, p_slot), p_state);
+        }
+    }
+
+    public synchronized void setIfUnknown(long p_chunkPos, int p_slot, byte p_state) {
+        MappedByteBuffer mappedbytebuffer = this.getRegion(p_chunkPos, true);
+        if (mappedbytebuffer != null) {
+            int i = getOffset(p_chunkPos, p_slot);
+            if (mappedbytebuffer.get(i) == UNKNOWN) {
+                mappedbytebuffer.put(i, p_state);
+            }
+        }
+    }
+
+    private static int getOffset(long p_chunkPos, int p_slot) {
+        int i = ChunkPos.getX(p_chunkPos) & 31;
+        int j = ChunkPos.getZ(p_chunkPos) & 31;
+        return p_slot * CHUNKS_PER_REGION + (j << 5 | i);
+    }
+
+    @Nullable
+    private MappedByteBuffer getRegion(long p_chunkPos, boolean p_create) {
+        int i = ChunkPos.getX(p_chunkPos) >> 5;
+        int j = ChunkPos.getZ(p_chunkPos) >> 5;
+        long k = ChunkPos.asLong(i, j);
+        if (this.regions.containsKey(k)) {
+            MappedByteBuffer mappedbytebuffer = this.regions.getAndMoveToLast(k);
+            if (mappedbytebuffer != null || !p_create) {
+                return mappedbytebuffer;
+            }
+        }
+
+        Path path = this.directory.resolve("r." + i + "." + j + REGION_EXTENSION);
+        MappedByteBuffer mappedbytebuffer1 = null;
+        if (p_create || Files.exists(path)) {
+            try (FileChannel filechannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                mappedbytebuffer1 = filechannel.map(FileChannel.MapMode.READ_WRITE, 0L, (long)(this.palette.size() - 1) * CHUNKS_PER_REGION);
+            } catch (IOException ioexception) {
+                LOGGER.warn("Failed to map structure check index {}", path, ioexception);
+            }
+        }
+
+        this.regions.putAndMoveToLast(k, mappedbytebuffer1);
+        if (this.regions.size() > MAX_OPEN_REGIONS) {
+            MappedByteBuffer mappedbytebuffer2 = this.regions.removeFirst();
+            if (mappedbytebuffer2 != null) {
+                mappedbytebuffer2.force();
+            }
+        }
+
+        return mappedbytebuffer1;
+    }
+
+    private void closeRegions() {
+        for (MappedByteBuffer mappedbytebuffer : this.regions.values()) {
+            if (mappedbytebuffer != null) {
+                mappedbytebuffer.force();
+            }
+        }
+
+        this.regions.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        this.closeRegions();
+    }
+}
@@ -0,0 +1,109 @@
+package net.minecraft.world.level.levelgen.structure.pools;
+
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.minecraft.SharedConstants;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.shapes.BooleanOp;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+import org.slf4j.Logger;
+
+public class JigsawFreeSpace {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final boolean VALIDATE = SharedConstants.IS_RUNNING_IN_IDE;
+    private static final int CELL_SHIFT = 5;
+    @Nullable
+    private final BoundingBox bounds;
+    private final Long2ObjectMap<List<BoundingBox>> occupiedCells = new Long2ObjectOpenHashMap<>();
+    @Nullable
+    private VoxelShape shape;
+
+    private JigsawFreeSpace(@Nullable BoundingBox p_bounds) {
+        this.bounds = p_bounds;
+        if (VALIDATE) {
+            this.shape = p_bounds == null ? Shapes.empty() : Shapes.create(AABB.of(p_bounds));
+        }
+    }
+
+    public static JigsawFreeSpace of(BoundingBox p_bounds) {
+        return new JigsawFreeSpace(p_bounds);
+    }
+
+    public static JigsawFreeSpace of(int p_minX, int p_minY, int p_minZ, int p_maxX, int p_maxY, int p_maxZ) {
+        return p_minX <= p_maxX && p_minY <= p_maxY && p_minZ <= p_maxZ
+            ? new JigsawFreeSpace(new BoundingBox(p_minX, p_minY, p_minZ, p_maxX, p_maxY, p_maxZ))
+            : new JigsawFreeSpace(null);
+    }
+
+    public boolean fits(BoundingBox p_box) {
+        boolean flag = this.bounds != null && this.contains(p_box) && !this.isOccupied(p_box);
+        if (this.shape != null) {
+            boolean flag1 = !Shapes.joinIsNotEmpty(this.shape, Shapes.create(AABB.of(p_box).deflate(0.25)), BooleanOp.ONLY_SECOND);
+            if (flag != flag1) {
+                LOGGER.error("Jigsaw free space index disagrees with voxel shape for {}: index {}, shape {}", p_box, flag, flag1);
+                return flag1;
+            }
+        }
+
+        return flag;
+    }
+
+    public void occupy(BoundingBox p_box) {
+        int i = p_box.minX() >> CELL_SHIFT;
+        int j = p_box.minZ() >> CELL_SHIFT;
+        int k = p_box.maxX() >> CELL_SHIFT;
+        int l = p_box.maxZ() >> CELL_SHIFT;
+
+        for (int i1 = i; i1 <= k; i1++) {
+            for (int j1 = j; j1 <= l; j1++) {
+                this.occupiedCells.computeIfAbsent(ChunkPos.asLong(i1, j1), p_cell -> new ArrayList<>()).add(p_box);
+            }
+        }
+
+        if (this.shape != null) {
+            this.shape = Shapes.joinUnoptimized(this.shape, Shapes.create(AABB.of(p_box)), BooleanOp.ONLY_FIRST);
+        }
+    }
+
+    private boolean contains(BoundingBox p_box) {
+        return p_box.minX() >= this.bounds.minX()
+            && p_box.minY() >= this.bounds.minY()
+            && p_box.minZ() >= this.bounds.minZ()
+            && p_box.maxX() <= this.bounds.maxX()
+            && p_box.maxY() <= this.bounds.maxY()
+            && p_box.maxZ() <= this.bounds.maxZ();
+    }
+
+    private boolean isOccupied(BoundingBox p_box) {
+        if (this.occupiedCells.isEmpty()) {
+            return false;
+        } else {
+            int i = p_box.minX() >> CELL_SHIFT;
+            int j = p_box.minZ() >> CELL_SHIFT;
+            int k = p_box.maxX() >> CELL_SHIFT;
+            int l = p_box.maxZ() >> CELL_SHIFT;
+
+            for (int i1 = i; i1 <= k; i1++) {
+                for (int j1 = j; j1 <= l; j1++) {
+                    List<BoundingBox> list = this.occupiedCells.get(ChunkPos.asLong(i1, j1));
+                    if (list != null) {
+                        for (BoundingBox boundingbox : list) {
+                            if (boundingbox.intersects(p_box)) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+
+            return false;
+        }
+    }
+}
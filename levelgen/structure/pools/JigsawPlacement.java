@@ -36,10 +36,6 @@ import net.minecraft.world.level.levelgen.structure.structures.JigsawStructure;
 import net.minecraft.world.level.levelgen.structure.templatesystem.LiquidSettings;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
-import net.minecraft.world.phys.AABB;
-import net.minecraft.world.phys.shapes.BooleanOp;
-import net.minecraft.world.phys.shapes.Shapes;
-import net.minecraft.world.phys.shapes.VoxelShape;
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.slf4j.Logger;
 
@@ -128,15 +124,15 @@ public class JigsawPlacement {
                             List<PoolElementStructurePiece> list = Lists.newArrayList();
                             list.add(poolelementstructurepiece);
                             if (p_227242_ > 0) {
-                                AABB aabb = new AABB(
-                                    (double)(i - p_227246_),
-                                    (double)Math.max(i1 - p_227246_, levelheightaccessor.getMinY() + p_342449_.bottom()),
-                                    (double)(j - p_227246_),
-                                    (double)(i + p_227246_ + 1),
-                                    (double)Math.min(i1 + p_227246_ + 1, levelheightaccessor.getMaxY() + 1 - p_342449_.top()),
-                                    (double)(j + p_227246_ + 1)
+                                JigsawFreeSpace jigsawfreespace = JigsawFreeSpace.of(
+                                    i - p_227246_,
+                                    Math.max(i1 - p_227246_, levelheightaccessor.getMinY() + p_342449_.bottom()),
+                                    j - p_227246_,
+                                    i + p_227246_,
+                                    Math.min(i1 + p_227246_, levelheightaccessor.getMaxY() - p_342449_.top()),
+                                    j + p_227246_
                                 );
-                                VoxelShape voxelshape = Shapes.join(Shapes.create(aabb), Shapes.create(AABB.of(boundingbox)), BooleanOp.ONLY_FIRST);
+                                jigsawfreespace.occupy(boundingbox);
                                 addPieces(
                                     p_227239_.randomState(),
                                     p_227242_,
@@ -148,7 +144,7 @@ public class JigsawPlacement {
                                     registry,
                                     poolelementstructurepiece,
                                     list,
-                                    voxelshape,
+                                    jigsawfreespace,
                                     p_312146_,
                                     p_344414_
                                 );
@@ -199,12 +195,12 @@ public class JigsawPlacement {
         Registry<StructureTemplatePool> p_227218_,
         PoolElementStructurePiece p_227219_,
         List<PoolElementStructurePiece> p_227220_,
-        VoxelShape p_227221_,
+        JigsawFreeSpace p_227221_,
         PoolAliasLookup p_312553_,
         LiquidSettings p_343434_
     ) {
         JigsawPlacement.Placer jigsawplacement$placer = new JigsawPlacement.Placer(p_227218_, p_227212_, p_227214_, p_227215_, p_227220_, p_227217_);
-        jigsawplacement$placer.tryPlacingChildren(p_227219_, new MutableObject<>(p_227221_), 0, p_227213_, p_227216_, p_227211_, p_312553_, p_343434_);
+        jigsawplacement$placer.tryPlacingChildren(p_227219_, p_227221_, 0, p_227213_, p_227216_, p_227211_, p_312553_, p_343434_);
 
         while (jigsawplacement$placer.placing.hasNext()) {
             JigsawPlacement.PieceState jigsawplacement$piecestate = jigsawplacement$placer.placing.next();
@@ -267,7 +263,7 @@ public class JigsawPlacement {
         }
     }
 
-    static record PieceState(PoolElementStructurePiece piece, MutableObject<VoxelShape> free, int depth) {
+    static record PieceState(PoolElementStructurePiece piece, JigsawFreeSpace free, int depth) {
     }
 
     static final class Placer {
@@ -297,7 +293,7 @@ public class JigsawPlacement {
 
         void tryPlacingChildren(
             PoolElementStructurePiece p_227265_,
-            MutableObject<VoxelShape> p_227266_,
+            JigsawFreeSpace p_227266_,
             int p_227267_,
             boolean p_227268_,
             LevelHeightAccessor p_227269_,
@@ -310,7 +306,7 @@ public class JigsawPlacement {
             Rotation rotation = p_227265_.getRotation();
             StructureTemplatePool.Projection structuretemplatepool$projection = structurepoolelement.getProjection();
             boolean flag = structuretemplatepool$projection == StructureTemplatePool.Projection.RIGID;
-            MutableObject<VoxelShape> mutableobject = new MutableObject<>();
+            MutableObject<JigsawFreeSpace> mutableobject = new MutableObject<>();
             BoundingBox boundingbox = p_227265_.getBoundingBox();
             int i = boundingbox.minY();
 
@@ -342,14 +338,15 @@ public class JigsawPlacement {
                                 );
                         } else {
                             boolean flag1 = boundingbox.isInside(blockpos2);
-                            MutableObject<VoxelShape> mutableobject1;
+                            JigsawFreeSpace jigsawfreespace;
                             if (flag1) {
-                                mutableobject1 = mutableobject;
                                 if (mutableobject.getValue() == null) {
-                                    mutableobject.setValue(Shapes.create(AABB.of(boundingbox)));
+                                    mutableobject.setValue(JigsawFreeSpace.of(boundingbox));
                                 }
+
+                                jigsawfreespace = mutableobject.getValue();
                             } else {
-                                mutableobject1 = p_227266_;
+                                jigsawfreespace = p_227266_;
                             }
 
                             List<StructurePoolElement> list = Lists.newArrayList();
@@ -437,12 +434,8 @@ public class JigsawPlacement {
                                                 );
                                             }
 
-                                            if (!Shapes.joinIsNotEmpty(
-                                                mutableobject1.getValue(), Shapes.create(AABB.of(boundingbox3).deflate(0.25)), BooleanOp.ONLY_SECOND
-                                            )) {
-                                                mutableobject1.setValue(
-                                                    Shapes.joinUnoptimized(mutableobject1.getValue(), Shapes.create(AABB.of(boundingbox3)), BooleanOp.ONLY_FIRST)
-                                                );
+                                            if (jigsawfreespace.fits(boundingbox3)) {
+                                                jigsawfreespace.occupy(boundingbox3);
                                                 int j3 = p_227265_.getGroundLevelDelta();
                                                 int l2;
                                                 if (flag2) {
@@ -487,7 +480,7 @@ public class JigsawPlacement {
                                                 this.pieces.add(poolelementstructurepiece);
                                                 if (p_227267_ + 1 <= this.maxDepth) {
                                                     JigsawPlacement.PieceState jigsawplacement$piecestate = new JigsawPlacement.PieceState(
-                                                        poolelementstructurepiece, mutableobject1, p_227267_ + 1
+                                                        poolelementstructurepiece, jigsawfreespace, p_227267_ + 1
                                                     );
                                                     this.placing.add(jigsawplacement$piecestate, l);
                                                 }
@@ -5,6 +5,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -13,6 +14,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import net.minecraft.core.BlockPos;
@@ -261,7 +263,8 @@ public class StructureTemplate {
         if (this.palettes.isEmpty()) {
             return false;
         } else {
-            List<StructureTemplate.StructureBlockInfo> list = p_230332_.getRandomPalette(this.palettes, p_230330_).blocks();
+            StructureTemplate.Palette structuretemplate$palette = p_230332_.getRandomPalette(this.palettes, p_230330_);
+            List<StructureTemplate.StructureBlockInfo> list = structuretemplate$palette.blocks();
             if ((!list.isEmpty() || !p_230332_.isIgnoreEntities() && !this.entityInfoList.isEmpty())
                 && this.size.getX() >= 1
                 && this.size.getY() >= 1
@@ -276,12 +279,17 @@ public class StructureTemplate {
                 int l = Integer.MIN_VALUE;
                 int i1 = Integer.MIN_VALUE;
                 int j1 = Integer.MIN_VALUE;
+                StructureTemplate.TransformedBlocks structuretemplate$transformedblocks = structuretemplate$palette.transformed(
+                    p_230332_.getMirror(), p_230332_.getRotation(), p_230332_.getRotationPivot()
+                );
 
-                for (StructureTemplate.StructureBlockInfo structuretemplate$structureblockinfo : processBlockInfos(p_230329_, p_230330_, p_230331_, p_230332_, list)) {
+                for (StructureTemplate.StructureBlockInfo structuretemplate$structureblockinfo : processBlockInfos(
+                    p_230329_, p_230330_, p_230331_, p_230332_, list, structuretemplate$transformedblocks
+                )) {
                     BlockPos blockpos = structuretemplate$structureblockinfo.pos;
                     if (boundingbox == null || boundingbox.isInside(blockpos)) {
                         FluidState fluidstate = p_230332_.shouldApplyWaterlogging() ? p_230329_.getFluidState(blockpos) : null;
-                        BlockState blockstate = structuretemplate$structureblockinfo.state.mirror(p_230332_.getMirror()).rotate(p_230332_.getRotation());
+                        BlockState blockstate = structuretemplate$transformedblocks.transformState(structuretemplate$structureblockinfo.state);
                         if (structuretemplate$structureblockinfo.nbt != null) {
                             BlockEntity blockentity = p_230329_.getBlockEntity(blockpos);
                             Clearable.tryClear(blockentity);
@@ -435,22 +443,39 @@ public class StructureTemplate {
         BlockPos p_74520_,
         StructurePlaceSettings p_74521_,
         List<StructureTemplate.StructureBlockInfo> p_74522_
+    ) {
+        return processBlockInfos(p_278297_, p_74519_, p_74520_, p_74521_, p_74522_, null);
+    }
+
+    private static List<StructureTemplate.StructureBlockInfo> processBlockInfos(
+        ServerLevelAccessor p_level,
+        BlockPos p_offset,
+        BlockPos p_pos,
+        StructurePlaceSettings p_settings,
+        List<StructureTemplate.StructureBlockInfo> p_blockInfos,
+        @Nullable StructureTemplate.TransformedBlocks p_transformedBlocks
     ) {
         List<StructureTemplate.StructureBlockInfo> list = new ArrayList<>();
         List<StructureTemplate.StructureBlockInfo> list1 = new ArrayList<>();
 
-        for (StructureTemplate.StructureBlockInfo structuretemplate$structureblockinfo : p_74522_) {
-            BlockPos blockpos = calculateRelativePosition(p_74521_, structuretemplate$structureblockinfo.pos).offset(p_74519_);
+        for (int i = 0; i < p_blockInfos.size(); i++) {
+            StructureTemplate.StructureBlockInfo structuretemplate$structureblockinfo = p_blockInfos.get(i);
+            BlockPos blockpos = (
+                    p_transformedBlocks != null
+                        ? p_transformedBlocks.relativePosition(i)
+                        : calculateRelativePosition(p_settings, structuretemplate$structureblockinfo.pos)
+                )
+                .offset(p_offset);
             StructureTemplate.StructureBlockInfo structuretemplate$structureblockinfo1 = new StructureTemplate.StructureBlockInfo(
                 blockpos,
                 structuretemplate$structureblockinfo.state,
                 structuretemplate$structureblockinfo.nbt != null ? structuretemplate$structureblockinfo.nbt.copy() : null
             );
-            Iterator<StructureProcessor> iterator = p_74521_.getProcessors().iterator();
+            Iterator<StructureProcessor> iterator = p_settings.getProcessors().iterator();
 
             while (structuretemplate$structureblockinfo1 != null && iterator.hasNext()) {
                 structuretemplate$structureblockinfo1 = iterator.next()
-                    .processBlock(p_278297_, p_74519_, p_74520_, structuretemplate$structureblockinfo, structuretemplate$structureblockinfo1, p_74521_);
+                    .processBlock(p_level, p_offset, p_pos, structuretemplate$structureblockinfo, structuretemplate$structureblockinfo1, p_settings);
             }
 
             if (structuretemplate$structureblockinfo1 != null) {
@@ -459,8 +484,8 @@ public class StructureTemplate {
             }
         }
 
-        for (StructureProcessor structureprocessor : p_74521_.getProcessors()) {
-            list1 = structureprocessor.finalizeProcessing(p_278297_, p_74519_, p_74520_, list, list1, p_74521_);
+        for (StructureProcessor structureprocessor : p_settings.getProcessors()) {
+            list1 = structureprocessor.finalizeProcessing(p_level, p_offset, p_pos, list, list1, p_settings);
         }
 
         return list1;
@@ -861,6 +886,7 @@ public class StructureTemplate {
     public static final class Palette {
         private final List<StructureTemplate.StructureBlockInfo> blocks;
         private final Map<Block, List<StructureTemplate.StructureBlockInfo>> cache = Maps.newHashMap();
+        private final Map<StructureTemplate.TransformKey, StructureTemplate.TransformedBlocks> transformed = new ConcurrentHashMap<>();
         @Nullable
         private List<StructureTemplate.JigsawBlockInfo> cachedJigsaws;
 
@@ -886,6 +912,48 @@ public class StructureTemplate {
                     p_74654_, p_74659_ -> this.blocks.stream().filter(p_163818_ -> p_163818_.state.is(p_74659_)).collect(Collectors.toList())
                 );
         }
+
+        public StructureTemplate.TransformedBlocks transformed(Mirror p_mirror, Rotation p_rotation, BlockPos p_pivot) {
+            return this.transformed
+                .computeIfAbsent(
+                    new StructureTemplate.TransformKey(p_mirror, p_rotation, p_pivot.immutable()),
+                    p_key -> new StructureTemplate.TransformedBlocks(this.blocks, p_key)
+                );
+        }
+    }
+
+    static record TransformKey(Mirror mirror, Rotation rotation, BlockPos pivot) {
+    }
+
+    public static final class TransformedBlocks {
+        private final BlockPos[] relativePositions;
+        private final Reference2ReferenceOpenHashMap<BlockState, BlockState> states = new Reference2ReferenceOpenHashMap<>();
+        private final Mirror mirror;
+        private final Rotation rotation;
+
+        TransformedBlocks(List<StructureTemplate.StructureBlockInfo> p_blocks, StructureTemplate.TransformKey p_key) {
+            this.mirror = p_key.mirror();
+            this.rotation = p_key.rotation();
+            this.relativePositions = new BlockPos[p_blocks.size()];
+
+            for (int i = 0; i < this.relativePositions.length; i++) {
+                StructureTemplate.StructureBlockInfo structuretemplate$structureblockinfo = p_blocks.get(i);
+                this.relativePositions[i] = transform(structuretemplate$structureblockinfo.pos, this.mirror, this.rotation, p_key.pivot());
+                this.states
+                    .computeIfAbsent(
+                        structuretemplate$structureblockinfo.state, (BlockState p_state) -> p_state.mirror(this.mirror).rotate(this.rotation)
+                    );
+            }
+        }
+
+        public BlockPos relativePosition(int p_index) {
+            return this.relativePositions[p_index];
+        }
+
+        public BlockState transformState(BlockState p_state) {
+            BlockState blockstate = this.states.get(p_state);
+            return blockstate != null ? blockstate : p_state.mirror(this.mirror).rotate(this.rotation);
+        }
     }
 
     static class SimplePalette implements Iterable<BlockState> {
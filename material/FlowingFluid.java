@@ -1,13 +1,14 @@
 package net.minecraft.world.level.material;
 
 import com.google.common.collect.Maps;
-import it.unimi.dsi.fastutil.objects.Object2ByteLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.shorts.Short2BooleanMap;
 import it.unimi.dsi.fastutil.shorts.Short2BooleanOpenHashMap;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import javax.annotation.Nullable;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
@@ -33,20 +34,8 @@ import net.minecraft.world.phys.shapes.VoxelShape;
 public abstract class FlowingFluid extends Fluid {
     public static final BooleanProperty FALLING = BlockStateProperties.FALLING;
     public static final IntegerProperty LEVEL = BlockStateProperties.LEVEL_FLOWING;
-    private static final int CACHE_SIZE = 200;
-    private static final ThreadLocal<Object2ByteLinkedOpenHashMap<FlowingFluid.BlockStatePairKey>> OCCLUSION_CACHE = ThreadLocal.withInitial(
-        () -> {
-            Object2ByteLinkedOpenHashMap<FlowingFluid.BlockStatePairKey> object2bytelinkedopenhashmap = new Object2ByteLinkedOpenHashMap<FlowingFluid.BlockStatePairKey>(
-                200
-            ) {
-                @Override
-                protected void rehash(int p_76102_) {
-                }
-            };
-            object2bytelinkedopenhashmap.defaultReturnValue((byte)127);
-            return object2bytelinkedopenhashmap;
-        }
-    );
+    private static final int CACHE_SIZE = 4096;
+    private static final ThreadLocal<long[]> OCCLUSION_CACHE = ThreadLocal.withInitial(() -> new long[4096]);
     private final Map<FluidState, VoxelShape> shapes = Maps.newIdentityHashMap();
 
     @Override
@@ -207,35 +196,20 @@ public abstract class FlowingFluid extends Fluid {
                 return false;
             } else if (voxelshape1 == Shapes.empty() && voxelshape == Shapes.empty()) {
                 return true;
-            } else {
-                Object2ByteLinkedOpenHashMap<FlowingFluid.BlockStatePairKey> object2bytelinkedopenhashmap;
-                if (!p_76065_.getBlock().hasDynamicShape() && !p_76067_.getBlock().hasDynamicShape()) {
-                    object2bytelinkedopenhashmap = OCCLUSION_CACHE.get();
-                } else {
-                    object2bytelinkedopenhashmap = null;
-                }
-
-                FlowingFluid.BlockStatePairKey flowingfluid$blockstatepairkey;
-                if (object2bytelinkedopenhashmap != null) {
-                    flowingfluid$blockstatepairkey = new FlowingFluid.BlockStatePairKey(p_76065_, p_76067_, p_76062_);
-                    byte b0 = object2bytelinkedopenhashmap.getAndMoveToFirst(flowingfluid$blockstatepairkey);
-                    if (b0 != 127) {
-                        return b0 != 0;
-                    }
+            } else if (!p_76065_.getBlock().hasDynamicShape() && !p_76067_.getBlock().hasDynamicShape()) {
+                long[] along = OCCLUSION_CACHE.get();
+                long i = (long)Block.getId(p_76065_) << 31 | (long)Block.getId(p_76067_) << 3 | (long)p_76062_.ordinal();
+                int j = (int)HashCommon.mix(i) & CACHE_SIZE - 1;
+                long k = along[j];
+                if (k >>> 2 == i && (k & 2L) != 0L) {
+                    return (k & 1L) != 0L;
                 } else {
-                    flowingfluid$blockstatepairkey = null;
+                    boolean flag = !Shapes.mergedFaceOccludes(voxelshape1, voxelshape, p_76062_);
+                    along[j] = i << 2 | 2L | (flag ? 1L : 0L);
+                    return flag;
                 }
-
-                boolean flag = !Shapes.mergedFaceOccludes(voxelshape1, voxelshape, p_76062_);
-                if (object2bytelinkedopenhashmap != null) {
-                    if (object2bytelinkedopenhashmap.size() == 200) {
-                        object2bytelinkedopenhashmap.removeLastByte();
-                    }
-
-                    object2bytelinkedopenhashmap.putAndMoveToFirst(flowingfluid$blockstatepairkey, (byte)(flag ? 1 : 0));
-                }
-
-                return flag;
+            } else {
+                return !Shapes.mergedFaceOccludes(voxelshape1, voxelshape, p_76062_);
             }
         }
     }
@@ -354,7 +328,7 @@ public abstract class FlowingFluid extends Fluid {
                 FluidState fluidstate1 = this.getNewLiquid(p_367926_, blockpos, blockstate);
                 if (canHoldSpecificFluid(p_367926_, blockpos, blockstate, fluidstate1.getType())) {
                     if (flowingfluid$spreadcontext == null) {
-                        flowingfluid$spreadcontext = new FlowingFluid.SpreadContext(p_367926_, p_76081_);
+                        flowingfluid$spreadcontext = new FlowingFluid.SpreadContext(p_367926_, p_76081_, p_367926_.getFluidSpreadCache(), p_367926_.getGameTime());
                     }
 
                     int j;
@@ -465,36 +439,20 @@ public abstract class FlowingFluid extends Fluid {
             : this.shapes.computeIfAbsent(p_76084_, p_76073_ -> Shapes.box(0.0, 0.0, 0.0, 1.0, (double)p_76073_.getHeight(p_76085_, p_76086_), 1.0));
     }
 
-    static record BlockStatePairKey(BlockState first, BlockState second, Direction direction) {
-        @Override
-        public boolean equals(Object p_364864_) {
-            if (p_364864_ instanceof FlowingFluid.BlockStatePairKey flowingfluid$blockstatepairkey
-                && this.first == flowingfluid$blockstatepairkey.first
-                && this.second == flowingfluid$blockstatepairkey.second
-                && this.direction == flowingfluid$blockstatepairkey.direction) {
-                return true;
-            }
-
-            return false;
-        }
-
-        @Override
-        public int hashCode() {
-            int i = System.identityHashCode(this.first);
-            i = 31 * i + System.identityHashCode(this.second);
-            return 31 * i + this.direction.hashCode();
-        }
-    }
-
     protected class SpreadContext {
         private final BlockGetter level;
         private final BlockPos origin;
         private final Short2ObjectMap<BlockState> stateCache = new Short2ObjectOpenHashMap<>();
         private final Short2BooleanMap holeCache = new Short2BooleanOpenHashMap();
-
-        SpreadContext(final BlockGetter p_369304_, final BlockPos p_362233_) {
-            this.level = p_369304_;
-            this.origin = p_362233_;
+        @Nullable
+        private final FluidSpreadCache sharedCache;
+        private final long gameTime;
+
+        SpreadContext(final BlockGetter p_level, final BlockPos p_origin, @Nullable final FluidSpreadCache p_sharedCache, final long p_gameTime) {
+            this.level = p_level;
+            this.origin = p_origin;
+            this.sharedCache = p_sharedCache;
+            this.gameTime = p_gameTime;
         }
 
         public BlockState getBlockState(BlockPos p_366261_) {
@@ -507,10 +465,23 @@ public abstract class FlowingFluid extends Fluid {
 
         public boolean isHole(BlockPos p_370165_) {
             return this.holeCache.computeIfAbsent(this.getCacheKey(p_370165_), p_365811_ -> {
+                Fluid fluid = FlowingFluid.this.getFlowing();
+                if (this.sharedCache != null) {
+                    byte b0 = this.sharedCache.getHole(fluid, this.gameTime, p_370165_);
+                    if (b0 != FluidSpreadCache.UNKNOWN) {
+                        return FluidSpreadCache.isHole(b0);
+                    }
+                }
+
                 BlockState blockstate = this.getBlockState(p_370165_, p_365811_);
                 BlockPos blockpos = p_370165_.below();
                 BlockState blockstate1 = this.level.getBlockState(blockpos);
-                return FlowingFluid.this.isWaterHole(this.level, p_370165_, blockstate, blockpos, blockstate1);
+                boolean flag = FlowingFluid.this.isWaterHole(this.level, p_370165_, blockstate, blockpos, blockstate1);
+                if (this.sharedCache != null) {
+                    this.sharedCache.setHole(fluid, p_370165_, flag);
+                }
+
+                return flag;
             });
         }
 
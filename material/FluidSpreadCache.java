@@ -0,0 +1,86 @@
+package net.minecraft.world.level.material;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectArrayMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+public class FluidSpreadCache {
+    public static final byte UNKNOWN = 0;
+    private static final byte NOT_HOLE = 1;
+    private static final byte HOLE = 2;
+    private static final int MAX_CACHED_SECTIONS = 512;
+    private final Reference2ObjectMap<Fluid, Long2ObjectOpenHashMap<byte[]>> holesByFluid = new Reference2ObjectArrayMap<>();
+    private long gameTime = Long.MIN_VALUE;
+    private int cachedSections;
+
+    public byte getHole(Fluid p_fluid, long p_gameTime, BlockPos p_pos) {
+        if (p_gameTime != this.gameTime) {
+            this.clear();
+            this.gameTime = p_gameTime;
+            return UNKNOWN;
+        } else {
+            Long2ObjectOpenHashMap<byte[]> long2objectopenhashmap = this.holesByFluid.get(p_fluid);
+            if (long2objectopenhashmap == null) {
+                return UNKNOWN;
+            } else {
+                byte[] abyte = long2objectopenhashmap.get(SectionPos.asLong(p_pos));
+                return abyte == null ? UNKNOWN : abyte[index(p_pos)];
+            }
+        }
+    }
+
+    public static boolean isHole(byte p_value) {
+        return p_value == HOLE;
+    }
+
+    public void setHole(Fluid p_fluid, BlockPos p_pos, boolean p_hole) {
+        if (this.cachedSections >= MAX_CACHED_SECTIONS) {
+            this.clear();
+        }
+
+        Long2ObjectOpenHashMap<byte[]> long2objectopenhashmap = this.holesByFluid.get(p_fluid);
+        if (long2objectopenhashmap == null) {
+            long2objectopenhashmap = new Long2ObjectOpenHashMap<>();
+            this.holesByFluid.put(p_fluid, long2objectopenhashmap);
+        }
+
+        long i = SectionPos.asLong(p_pos);
+        byte[] abyte = long2objectopenhashmap.get(i);
+        if (abyte == null) {
+            abyte = new byte[4096];
+            long2objectopenhashmap.put(i, abyte);
+            this.cachedSections++;
+        }
+
+        abyte[index(p_pos)] = p_hole ? HOLE : NOT_HOLE;
+    }
+
+    public void invalidate(BlockPos p_pos) {
+        if (this.cachedSections > 0) {
+            long i = SectionPos.asLong(p_pos);
+            this.invalidateSection(i);
+            if ((p_pos.getY() & 15) == 15) {
+                this.invalidateSection(SectionPos.offset(i, 0, 1, 0));
+            }
+        }
+    }
+
+    private void invalidateSection(long p_sectionPos) {
+        for (Long2ObjectOpenHashMap<byte[]> long2objectopenhashmap : this.holesByFluid.values()) {
+            if (long2objectopenhashmap.remove(p_sectionPos) != null) {
+                this.cachedSections--;
+            }
+        }
+    }
+
+    private void clear() {
+        this.holesByFluid.clear();
+        this.cachedSections = 0;
+    }
+
+    private static int index(BlockPos p_pos) {
+        return (p_pos.getY() & 15) << 8 | (p_pos.getZ() & 15) << 4 | p_pos.getX() & 15;
+    }
+}
@@ -4,44 +4,44 @@ import javax.annotation.Nullable;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.entity.Mob;
-import net.minecraft.world.level.PathNavigationRegion;
 
 public class AmphibiousNodeEvaluator extends WalkNodeEvaluator {
     private final boolean prefersShallowSwimming;
-    private float oldWalkableCost;
-    private float oldWaterBorderCost;
 
     public AmphibiousNodeEvaluator(boolean p_164659_) {
         this.prefersShallowSwimming = p_164659_;
     }
 
     @Override
-    public void prepare(PathNavigationRegion p_164671_, Mob p_164672_) {
-        super.prepare(p_164671_, p_164672_);
+    protected PathfindingMob liveMob(Mob p_mob) {
+        p_mob.setPathfindingMalus(PathType.WATER, 0.0F);
+        return super.liveMob(p_mob).withPathfindingMalus(PathType.WALKABLE, 6.0F).withPathfindingMalus(PathType.WATER_BORDER, 4.0F);
+    }
+
+    @Override
+    public PathfindingMobSnapshot snapshotMob(Mob p_164672_, RandomSource p_random) {
         p_164672_.setPathfindingMalus(PathType.WATER, 0.0F);
-        this.oldWalkableCost = p_164672_.getPathfindingMalus(PathType.WALKABLE);
-        p_164672_.setPathfindingMalus(PathType.WALKABLE, 6.0F);
-        this.oldWaterBorderCost = p_164672_.getPathfindingMalus(PathType.WATER_BORDER);
-        p_164672_.setPathfindingMalus(PathType.WATER_BORDER, 4.0F);
+        return super.snapshotMob(p_164672_, p_random)
+            .withPathfindingMalus(PathType.WALKABLE, 6.0F)
+            .withPathfindingMalus(PathType.WATER_BORDER, 4.0F);
     }
 
     @Override
-    public void done() {
-        this.mob.setPathfindingMalus(PathType.WALKABLE, this.oldWalkableCost);
-        this.mob.setPathfindingMalus(PathType.WATER_BORDER, this.oldWaterBorderCost);
-        super.done();
+    public NodeEvaluator copy() {
+        return this.copySettingsTo(new AmphibiousNodeEvaluator(this.prefersShallowSwimming));
     }
 
     @Override
     public Node getStart() {
-        return !this.mob.isInWater()
+        return !this.pathfindingMob.isInWater()
             ? super.getStart()
             : this.getStartNode(
                 new BlockPos(
-                    Mth.floor(this.mob.getBoundingBox().minX),
-                    Mth.floor(this.mob.getBoundingBox().minY + 0.5),
-                    Mth.floor(this.mob.getBoundingBox().minZ)
+                    Mth.floor(this.pathfindingMob.getBoundingBox().minX),
+                    Mth.floor(this.pathfindingMob.getBoundingBox().minY + 0.5),
+                    Mth.floor(this.pathfindingMob.getBoundingBox().minZ)
                 )
             );
     }
@@ -57,8 +57,8 @@ public class AmphibiousNodeEvaluator extends WalkNodeEvaluator {
         PathType pathtype = this.getCachedPathType(p_164677_.x, p_164677_.y + 1, p_164677_.z);
         PathType pathtype1 = this.getCachedPathType(p_164677_.x, p_164677_.y, p_164677_.z);
         int j;
-        if (this.mob.getPathfindingMalus(pathtype) >= 0.0F && pathtype1 != PathType.STICKY_HONEY) {
-            j = Mth.floor(Math.max(1.0F, this.mob.maxUpStep()));
+        if (this.pathfindingMob.getPathfindingMalus(pathtype) >= 0.0F && pathtype1 != PathType.STICKY_HONEY) {
+            j = Mth.floor(Math.max(1.0F, this.pathfindingMob.maxUpStep()));
         } else {
             j = 0;
         }
@@ -76,7 +76,7 @@ public class AmphibiousNodeEvaluator extends WalkNodeEvaluator {
 
         for (int k = 0; k < i; k++) {
             Node node2 = p_164676_[k];
-            if (node2.type == PathType.WATER && this.prefersShallowSwimming && node2.y < this.mob.level().getSeaLevel() - 10) {
+            if (node2.type == PathType.WATER && this.prefersShallowSwimming && node2.y < this.pathfindingMob.getSeaLevel() - 10) {
                 node2.costMalus++;
             }
         }
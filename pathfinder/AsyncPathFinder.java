@@ -0,0 +1,153 @@
+package net.minecraft.world.level.pathfinder;
+
+import com.google.common.collect.Queues;
+import com.mojang.logging.LogUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.PathNavigationRegion;
+import net.minecraft.world.level.PathNavigationRegionSnapshot;
+import org.slf4j.Logger;
+
+public class AsyncPathFinder {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private final Executor executor;
+    private final Map<AsyncPathFinder.RequestKey, AsyncPathFinder.PendingRequest> pendingRequests = new HashMap<>();
+    private final Queue<AsyncPathFinder.PendingRequest> completedRequests = Queues.newConcurrentLinkedQueue();
+    private final PathNavigationRegionSnapshot.SectionCache sectionCache = new PathNavigationRegionSnapshot.SectionCache();
+
+    public AsyncPathFinder(Executor p_executor) {
+        this.executor = p_executor;
+    }
+
+    public CompletableFuture<Path> findPath(
+        Mob p_mob,
+        NodeEvaluator p_nodeEvaluator,
+        int p_maxVisitedNodes,
+        Set<BlockPos> p_targets,
+        int p_regionRadius,
+        float p_maxDistance,
+        int p_reachRange,
+        float p_maxVisitedNodesMultiplier
+    ) {
+        BlockPos blockpos = p_mob.blockPosition();
+        p_mob.onPathfindingStart();
+        PathfindingMobSnapshot pathfindingmobsnapshot = p_nodeEvaluator.snapshotMob(
+            p_mob, RandomSource.create(p_mob.getUUID().getLeastSignificantBits() ^ p_mob.level().getGameTime())
+        );
+        p_mob.onPathfindingDone();
+        AsyncPathFinder.RequestKey asyncpathfinder$requestkey = new AsyncPathFinder.RequestKey(
+            p_mob.getType(),
+            p_nodeEvaluator.getClass(),
+            packSettings(p_nodeEvaluator),
+            pathfindingmobsnapshot.searchKey(),
+            blockpos,
+            Set.copyOf(p_targets),
+            p_maxVisitedNodes,
+            p_maxDistance,
+            p_reachRange,
+            p_maxVisitedNodesMultiplier
+        );
+        CompletableFuture<Path> completablefuture = new CompletableFuture<>();
+        AsyncPathFinder.PendingRequest asyncpathfinder$pendingrequest = this.pendingRequests.get(asyncpathfinder$requestkey);
+        if (asyncpathfinder$pendingrequest != null) {
+            asyncpathfinder$pendingrequest.waiters.add(completablefuture);
+            return completablefuture;
+        } else {
+            AsyncPathFinder.PendingRequest asyncpathfinder$pendingrequest1 = new AsyncPathFinder.PendingRequest(asyncpathfinder$requestkey);
+            asyncpathfinder$pendingrequest1.waiters.add(completablefuture);
+            this.pendingRequests.put(asyncpathfinder$requestkey, asyncpathfinder$pendingrequest1);
+            PathNavigationRegion pathnavigationregion = new PathNavigationRegionSnapshot(
+                p_mob.level(),
+                blockpos.offset(-p_regionRadius, -p_regionRadius, -p_regionRadius),
+                blockpos.offset(p_regionRadius, p_regionRadius, p_regionRadius),
+                this.sectionCache
+            );
+            NodeEvaluator nodeevaluator = p_nodeEvaluator.copy();
+
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        PathFinder pathfinder = new PathFinder(nodeevaluator, p_maxVisitedNodes);
+                        asyncpathfinder$pendingrequest1.result = pathfinder.findPath(
+                            pathnavigationregion,
+                            pathfindingmobsnapshot,
+                            asyncpathfinder$requestkey.targets(),
+                            p_maxDistance,
+                            p_reachRange,
+                            p_maxVisitedNodesMultiplier
+                        );
+                    } catch (Exception exception) {
+                        LOGGER.error("Failed to compute path from {}", blockpos, exception);
+                    } finally {
+                        this.completedRequests.add(asyncpathfinder$pendingrequest1);
+                    }
+                });
+            } catch (RejectedExecutionException rejectedexecutionexception) {
+                this.pendingRequests.remove(asyncpathfinder$requestkey);
+                completablefuture.completeExceptionally(rejectedexecutionexception);
+            }
+
+            return completablefuture;
+        }
+    }
+
+    public void tick() {
+        AsyncPathFinder.PendingRequest asyncpathfinder$pendingrequest;
+        while ((asyncpathfinder$pendingrequest = this.completedRequests.poll()) != null) {
+            this.pendingRequests.remove(asyncpathfinder$pendingrequest.key, asyncpathfinder$pendingrequest);
+            Path path = asyncpathfinder$pendingrequest.result;
+
+            for (int i = 0; i < asyncpathfinder$pendingrequest.waiters.size(); i++) {
+                asyncpathfinder$pendingrequest.waiters.get(i).complete(path != null && i > 0 ? path.detachedCopy() : path);
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return this.pendingRequests.size();
+    }
+
+    private static int packSettings(NodeEvaluator p_nodeEvaluator) {
+        return (p_nodeEvaluator.canPassDoors() ? 1 : 0)
+            | (p_nodeEvaluator.canOpenDoors() ? 2 : 0)
+            | (p_nodeEvaluator.canFloat() ? 4 : 0)
+            | (p_nodeEvaluator.canWalkOverFences() ? 8 : 0);
+    }
+
+    static class PendingRequest {
+        final AsyncPathFinder.RequestKey key;
+        final List<CompletableFuture<Path>> waiters = new ArrayList<>(1);
+        @Nullable
+        volatile Path result;
+
+        PendingRequest(AsyncPathFinder.RequestKey p_key) {
+            this.key = p_key;
+        }
+    }
+
+    static record RequestKey(
+        EntityType<?> type,
+        Class<?> evaluatorType,
+        int evaluatorSettings,
+        PathfindingMobSnapshot.SearchKey mob,
+        BlockPos start,
+        Set<BlockPos> targets,
+        int maxVisitedNodes,
+        float maxDistance,
+        int reachRange,
+        float maxVisitedNodesMultiplier
+    ) {
+    }
+}
@@ -20,14 +20,27 @@ public class FlyNodeEvaluator extends WalkNodeEvaluator {
 
     @Override
     public void prepare(PathNavigationRegion p_77261_, Mob p_77262_) {
+        p_77262_.onPathfindingStart();
         super.prepare(p_77261_, p_77262_);
+    }
+
+    @Override
+    protected void prepare(PathfindingContext p_context, PathfindingMob p_pathfindingMob) {
+        super.prepare(p_context, p_pathfindingMob);
         this.pathTypeByPosCache.clear();
-        p_77262_.onPathfindingStart();
+    }
+
+    @Override
+    public NodeEvaluator copy() {
+        return this.copySettingsTo(new FlyNodeEvaluator());
     }
 
     @Override
     public void done() {
-        this.mob.onPathfindingDone();
+        if (this.mob != null) {
+            this.mob.onPathfindingDone();
+        }
+
         this.pathTypeByPosCache.clear();
         super.done();
     }
@@ -35,23 +48,23 @@ public class FlyNodeEvaluator extends WalkNodeEvaluator {
     @Override
     public Node getStart() {
         int i;
-        if (this.canFloat() && this.mob.isInWater()) {
-            i = this.mob.getBlockY();
-            BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos(this.mob.getX(), (double)i, this.mob.getZ());
+        if (this.canFloat() && this.pathfindingMob.isInWater()) {
+            i = this.pathfindingMob.getBlockY();
+            BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos(this.pathfindingMob.getX(), (double)i, this.pathfindingMob.getZ());
 
             for (BlockState blockstate = this.currentContext.getBlockState(blockpos$mutableblockpos);
                 blockstate.is(Blocks.WATER);
                 blockstate = this.currentContext.getBlockState(blockpos$mutableblockpos)
             ) {
-                blockpos$mutableblockpos.set(this.mob.getX(), (double)(++i), this.mob.getZ());
+                blockpos$mutableblockpos.set(this.pathfindingMob.getX(), (double)(++i), this.pathfindingMob.getZ());
             }
         } else {
-            i = Mth.floor(this.mob.getY() + 0.5);
+            i = Mth.floor(this.pathfindingMob.getY() + 0.5);
         }
 
-        BlockPos blockpos1 = BlockPos.containing(this.mob.getX(), (double)i, this.mob.getZ());
+        BlockPos blockpos1 = BlockPos.containing(this.pathfindingMob.getX(), (double)i, this.pathfindingMob.getZ());
         if (!this.canStartAt(blockpos1)) {
-            for (BlockPos blockpos : this.iteratePathfindingStartNodeCandidatePositions(this.mob)) {
+            for (BlockPos blockpos : this.iteratePathfindingStartNodeCandidatePositions(this.pathfindingMob)) {
                 if (this.canStartAt(blockpos)) {
                     return super.getStartNode(blockpos);
                 }
@@ -64,7 +77,7 @@ public class FlyNodeEvaluator extends WalkNodeEvaluator {
     @Override
     protected boolean canStartAt(BlockPos p_262645_) {
         PathType pathtype = this.getCachedPathType(p_262645_.getX(), p_262645_.getY(), p_262645_.getZ());
-        return this.mob.getPathfindingMalus(pathtype) >= 0.0F;
+        return this.pathfindingMob.getPathfindingMalus(pathtype) >= 0.0F;
     }
 
     @Override
@@ -268,7 +281,7 @@ public class FlyNodeEvaluator extends WalkNodeEvaluator {
     protected Node findAcceptedNode(int p_262970_, int p_263018_, int p_262947_) {
         Node node = null;
         PathType pathtype = this.getCachedPathType(p_262970_, p_263018_, p_262947_);
-        float f = this.mob.getPathfindingMalus(pathtype);
+        float f = this.pathfindingMob.getPathfindingMalus(pathtype);
         if (f >= 0.0F) {
             node = this.getNode(p_262970_, p_263018_, p_262947_);
             node.type = pathtype;
@@ -286,7 +299,7 @@ public class FlyNodeEvaluator extends WalkNodeEvaluator {
         return this.pathTypeByPosCache
             .computeIfAbsent(
                 BlockPos.asLong(p_332812_, p_330135_, p_330816_),
-                p_327510_ -> this.getPathTypeOfMob(this.currentContext, p_332812_, p_330135_, p_330816_, this.mob)
+                p_327510_ -> this.getPathTypeOfMob(this.currentContext, p_332812_, p_330135_, p_330816_, this.pathfindingMob)
             );
     }
 
@@ -318,7 +331,7 @@ public class FlyNodeEvaluator extends WalkNodeEvaluator {
         return pathtype;
     }
 
-    private Iterable<BlockPos> iteratePathfindingStartNodeCandidatePositions(Mob p_263108_) {
+    private Iterable<BlockPos> iteratePathfindingStartNodeCandidatePositions(PathfindingMob p_263108_) {
         AABB aabb = p_263108_.getBoundingBox();
         boolean flag = aabb.getSize() < 1.0;
         if (!flag) {
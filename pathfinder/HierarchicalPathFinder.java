@@ -0,0 +1,31 @@
+package net.minecraft.world.level.pathfinder;
+
+import java.util.Set;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.PathNavigationRegion;
+
+public class HierarchicalPathFinder {
+    private final PathFinder pathFinder;
+
+    public HierarchicalPathFinder(PathFinder p_pathFinder) {
+        this.pathFinder = p_pathFinder;
+    }
+
+    @Nullable
+    public Path findPath(PathNavigationRegion p_region, Mob p_mob, BlockPos p_target, float p_maxDistance, int p_reachRange, float p_maxVisitedNodesMultiplier) {
+        BlockPos blockpos = p_target;
+        if (p_mob.level() instanceof ServerLevel serverlevel) {
+            BlockPos blockpos1 = serverlevel.getPathTypeCache()
+                .getConnectivityGraph()
+                .nextWaypoint(serverlevel, p_mob.blockPosition(), p_target, (int)p_maxDistance);
+            if (blockpos1 != null) {
+                blockpos = blockpos1;
+            }
+        }
+
+        return this.pathFinder.findPath(p_region, p_mob, Set.of(blockpos), p_maxDistance, blockpos == p_target ? p_reachRange : 1, p_maxVisitedNodesMultiplier);
+    }
+}
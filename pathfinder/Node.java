@@ -7,10 +7,10 @@ import net.minecraft.util.Mth;
 import net.minecraft.world.phys.Vec3;
 
 public class Node {
-    public final int x;
-    public final int y;
-    public final int z;
-    private final int hash;
+    public int x;
+    public int y;
+    public int z;
+    private int hash;
     public int heapIdx = -1;
     public float g;
     public float h;
@@ -29,6 +29,22 @@ public class Node {
         this.hash = createHash(p_77285_, p_77286_, p_77287_);
     }
 
+    void reset(int p_x, int p_y, int p_z) {
+        this.x = p_x;
+        this.y = p_y;
+        this.z = p_z;
+        this.hash = createHash(p_x, p_y, p_z);
+        this.heapIdx = -1;
+        this.g = 0.0F;
+        this.h = 0.0F;
+        this.f = 0.0F;
+        this.cameFrom = null;
+        this.closed = false;
+        this.walkedDistance = 0.0F;
+        this.costMalus = 0.0F;
+        this.type = PathType.BLOCKED;
+    }
+
     public Node cloneAndMove(int p_77290_, int p_77291_, int p_77292_) {
         Node node = new Node(p_77290_, p_77291_, p_77292_);
         node.heapIdx = this.heapIdx;
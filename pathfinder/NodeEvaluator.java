@@ -1,10 +1,10 @@
 package net.minecraft.world.level.pathfinder;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import javax.annotation.Nullable;
 import net.minecraft.core.BlockPos;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.level.PathNavigationRegion;
 import net.minecraft.world.level.block.Blocks;
@@ -13,8 +13,10 @@ import net.minecraft.world.level.block.state.BlockState;
 
 public abstract class NodeEvaluator {
     protected PathfindingContext currentContext;
+    @Nullable
     protected Mob mob;
-    protected final Int2ObjectMap<Node> nodes = new Int2ObjectOpenHashMap<>();
+    protected PathfindingMob pathfindingMob;
+    protected NodePool nodes = NodePool.forCurrentThread();
     protected int entityWidth;
     protected int entityHeight;
     protected int entityDepth;
@@ -24,17 +26,47 @@ public abstract class NodeEvaluator {
     protected boolean canWalkOverFences;
 
     public void prepare(PathNavigationRegion p_77347_, Mob p_77348_) {
-        this.currentContext = new PathfindingContext(p_77347_, p_77348_);
+        this.prepare(new PathfindingContext(p_77347_, p_77348_), this.liveMob(p_77348_));
         this.mob = p_77348_;
+    }
+
+    public void prepare(PathNavigationRegion p_region, PathfindingMob p_pathfindingMob) {
+        this.prepare(new PathfindingContext(p_region, p_pathfindingMob.blockPosition()), p_pathfindingMob);
+    }
+
+    protected void prepare(PathfindingContext p_context, PathfindingMob p_pathfindingMob) {
+        this.currentContext = p_context;
+        this.mob = null;
+        this.pathfindingMob = p_pathfindingMob;
+        this.nodes = NodePool.forCurrentThread();
         this.nodes.clear();
-        this.entityWidth = Mth.floor(p_77348_.getBbWidth() + 1.0F);
-        this.entityHeight = Mth.floor(p_77348_.getBbHeight() + 1.0F);
-        this.entityDepth = Mth.floor(p_77348_.getBbWidth() + 1.0F);
+        this.entityWidth = Mth.floor(p_pathfindingMob.getBbWidth() + 1.0F);
+        this.entityHeight = Mth.floor(p_pathfindingMob.getBbHeight() + 1.0F);
+        this.entityDepth = Mth.floor(p_pathfindingMob.getBbWidth() + 1.0F);
+    }
+
+    protected PathfindingMob liveMob(Mob p_mob) {
+        return PathfindingMob.of(p_mob);
+    }
+
+    public PathfindingMobSnapshot snapshotMob(Mob p_mob, RandomSource p_random) {
+        return new PathfindingMobSnapshot(p_mob, p_random);
+    }
+
+    public abstract NodeEvaluator copy();
+
+    protected <T extends NodeEvaluator> T copySettingsTo(T p_evaluator) {
+        p_evaluator.setCanPassDoors(this.canPassDoors);
+        p_evaluator.setCanOpenDoors(this.canOpenDoors);
+        p_evaluator.setCanFloat(this.canFloat);
+        p_evaluator.setCanWalkOverFences(this.canWalkOverFences);
+        return p_evaluator;
     }
 
     public void done() {
         this.currentContext = null;
         this.mob = null;
+        this.pathfindingMob = null;
     }
 
     protected Node getNode(BlockPos p_77350_) {
@@ -42,7 +74,7 @@ public abstract class NodeEvaluator {
     }
 
     protected Node getNode(int p_77325_, int p_77326_, int p_77327_) {
-        return this.nodes.computeIfAbsent(Node.createHash(p_77325_, p_77326_, p_77327_), p_77332_ -> new Node(p_77325_, p_77326_, p_77327_));
+        return this.nodes.get(p_77325_, p_77326_, p_77327_);
     }
 
     public abstract Node getStart();
@@ -55,7 +87,11 @@ public abstract class NodeEvaluator {
 
     public abstract int getNeighbors(Node[] p_77353_, Node p_77354_);
 
-    public abstract PathType getPathTypeOfMob(PathfindingContext p_335888_, int p_331986_, int p_331764_, int p_335132_, Mob p_329853_);
+    public PathType getPathTypeOfMob(PathfindingContext p_335888_, int p_331986_, int p_331764_, int p_335132_, Mob p_329853_) {
+        return this.getPathTypeOfMob(p_335888_, p_331986_, p_331764_, p_335132_, PathfindingMob.of(p_329853_));
+    }
+
+    public abstract PathType getPathTypeOfMob(PathfindingContext p_context, int p_x, int p_y, int p_z, PathfindingMob p_pathfindingMob);
 
     public abstract PathType getPathType(PathfindingContext p_334172_, int p_335319_, int p_333029_, int p_332756_);
 
@@ -0,0 +1,96 @@
+package net.minecraft.world.level.pathfinder;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import java.util.Arrays;
+import net.minecraft.core.BlockPos;
+
+public class NodePool {
+    private static final ThreadLocal<NodePool> POOLS = ThreadLocal.withInitial(NodePool::new);
+    private static final int INITIAL_NODES = 512;
+    private static final int INITIAL_CAPACITY = 1024;
+    private Node[] nodes = new Node[INITIAL_NODES];
+    private int size;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] indices = new int[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int generation = 1;
+
+    public static NodePool forCurrentThread() {
+        return POOLS.get();
+    }
+
+    public void clear() {
+        this.size = 0;
+        if (++this.generation == 0) {
+            Arrays.fill(this.generations, 0);
+            this.generation = 1;
+        }
+    }
+
+    public Node get(int p_x, int p_y, int p_z) {
+        long i = BlockPos.asLong(p_x, p_y, p_z);
+        int j = (int)HashCommon.mix(i) & this.mask;
+
+        while (this.generations[j] == this.generation) {
+            if (this.keys[j] == i) {
+                return this.nodes[this.indices[j]];
+            }
+
+            j = j + 1 & this.mask;
+        }
+
+        Node node = this.allocate(p_x, p_y, p_z);
+        this.keys[j] = i;
+        this.indices[j] = this.size - 1;
+        this.generations[j] = this.generation;
+        if (this.size * 2 > this.mask) {
+            this.rehash();
+        }
+
+        return node;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private Node allocate(int p_x, int p_y, int p_z) {
+        if (this.size == this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, this.size << 1);
+        }
+
+        Node node = this.nodes[this.size];
+        if (node == null) {
+            node = new Node(p_x, p_y, p_z);
+            this.nodes[this.size] = node;
+        } else {
+            node.reset(p_x, p_y, p_z);
+        }
+
+        this.size++;
+        return node;
+    }
+
+    private void rehash() {
+        int i = this.mask + 1 << 1;
+        this.keys = new long[i];
+        this.indices = new int[i];
+        this.generations = new int[i];
+        this.mask = i - 1;
+
+        for (int j = 0; j < this.size; j++) {
+            Node node = this.nodes[j];
+            long k = BlockPos.asLong(node.x, node.y, node.z);
+            int l = (int)HashCommon.mix(k) & this.mask;
+
+            while (this.generations[l] == this.generation) {
+                l = l + 1 & this.mask;
+            }
+
+            this.keys[l] = k;
+            this.indices[l] = j;
+            this.generations[l] = this.generation;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package net.minecraft.world.level.pathfinder;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -190,6 +191,13 @@ public class Path {
         return path;
     }
 
+    public Path detachedCopy() {
+        Path path = new Path(new ArrayList<>(this.nodes), this.target, this.reached);
+        path.debugData = this.debugData;
+        path.nextNodeIndex = this.nextNodeIndex;
+        return path;
+    }
+
     public static record DebugData(Node[] openSet, Node[] closedSet, Set<Target> targetNodes) {
         public void write(FriendlyByteBuf p_299578_) {
             p_299578_.writeCollection(this.targetNodes, (p_300614_, p_300157_) -> p_300157_.writeToStream(p_300614_));
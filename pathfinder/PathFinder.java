@@ -3,6 +3,7 @@ package net.minecraft.world.level.pathfinder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +40,20 @@ public class PathFinder {
     public Path findPath(PathNavigationRegion p_77428_, Mob p_77429_, Set<BlockPos> p_77430_, float p_77431_, int p_77432_, float p_77433_) {
         this.openSet.clear();
         this.nodeEvaluator.prepare(p_77428_, p_77429_);
+        return this.findPathFromPreparedStart(p_77430_, p_77431_, p_77432_, p_77433_);
+    }
+
+    @Nullable
+    public Path findPath(
+        PathNavigationRegion p_region, PathfindingMob p_pathfindingMob, Set<BlockPos> p_targets, float p_maxDistance, int p_reachRange, float p_maxVisitedNodesMultiplier
+    ) {
+        this.openSet.clear();
+        this.nodeEvaluator.prepare(p_region, p_pathfindingMob);
+        return this.findPathFromPreparedStart(p_targets, p_maxDistance, p_reachRange, p_maxVisitedNodesMultiplier);
+    }
+
+    @Nullable
+    private Path findPathFromPreparedStart(Set<BlockPos> p_77430_, float p_77431_, int p_77432_, float p_77433_) {
         Node node = this.nodeEvaluator.getStart();
         if (node == null) {
             return null;
@@ -142,13 +157,21 @@ public class PathFinder {
     private Path reconstructPath(Node p_77435_, BlockPos p_77436_, boolean p_77437_) {
         List<Node> list = Lists.newArrayList();
         Node node = p_77435_;
-        list.add(0, p_77435_);
+        list.add(detach(p_77435_));
 
         while (node.cameFrom != null) {
             node = node.cameFrom;
-            list.add(0, node);
+            list.add(detach(node));
         }
 
+        Collections.reverse(list);
         return new Path(list, p_77436_, p_77437_);
     }
+
+    private static Node detach(Node p_node) {
+        Node node = p_node.cloneAndMove(p_node.x, p_node.y, p_node.z);
+        node.heapIdx = -1;
+        node.cameFrom = null;
+        return node;
+    }
 }
\ No newline at end of file
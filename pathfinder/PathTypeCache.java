@@ -1,44 +1,93 @@
 package net.minecraft.world.level.pathfinder;
 
-import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import javax.annotation.Nullable;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.LevelHeightAccessor;
 
 public class PathTypeCache {
-    private static final int SIZE = 4096;
-    private static final int MASK = 4095;
-    private final long[] positions = new long[4096];
-    private final PathType[] pathTypes = new PathType[4096];
+    private static final int MAX_CACHED_SECTIONS = 1024;
+    private static final int BITS_PER_ENTRY = 5;
+    private static final int ENTRIES_PER_LONG = 12;
+    private static final long ENTRY_MASK = 31L;
+    private static final int LONGS_PER_SECTION = (4096 + ENTRIES_PER_LONG - 1) / ENTRIES_PER_LONG;
+    private static final PathType[] PATH_TYPES = PathType.values();
+    private final Long2ObjectLinkedOpenHashMap<long[]> sections = new Long2ObjectLinkedOpenHashMap<>();
+    private final SectionConnectivityGraph connectivityGraph = new SectionConnectivityGraph();
+    private long lastSectionPos = Long.MAX_VALUE;
+    @Nullable
+    private long[] lastSection;
 
     public PathType getOrCompute(BlockGetter p_328738_, BlockPos p_328240_) {
-        long i = p_328240_.asLong();
-        int j = index(i);
-        PathType pathtype = this.get(j, i);
-        return pathtype != null ? pathtype : this.compute(p_328738_, p_328240_, j, i);
+        long[] along = this.getOrCreateSection(SectionPos.asLong(p_328240_));
+        int i = index(p_328240_);
+        int j = i / ENTRIES_PER_LONG;
+        int k = i % ENTRIES_PER_LONG * BITS_PER_ENTRY;
+        int l = (int)(along[j] >>> k & ENTRY_MASK);
+        if (l != 0) {
+            return PATH_TYPES[l - 1];
+        } else {
+            PathType pathtype = WalkNodeEvaluator.getPathTypeFromState(p_328738_, p_328240_);
+            along[j] = along[j] & ~(ENTRY_MASK << k) | (long)(pathtype.ordinal() + 1) << k;
+            return pathtype;
+        }
     }
 
-    @Nullable
-    private PathType get(int p_331898_, long p_334711_) {
-        return this.positions[p_331898_] == p_334711_ ? this.pathTypes[p_331898_] : null;
-    }
+    private long[] getOrCreateSection(long p_sectionPos) {
+        if (p_sectionPos == this.lastSectionPos && this.lastSection != null) {
+            return this.lastSection;
+        } else {
+            long[] along = this.sections.getAndMoveToLast(p_sectionPos);
+            if (along == null) {
+                along = new long[LONGS_PER_SECTION];
+                this.sections.putAndMoveToLast(p_sectionPos, along);
+                if (this.sections.size() > MAX_CACHED_SECTIONS) {
+                    this.sections.removeFirst();
+                }
+            }
 
-    private PathType compute(BlockGetter p_333989_, BlockPos p_334142_, int p_329562_, long p_332989_) {
-        PathType pathtype = WalkNodeEvaluator.getPathTypeFromState(p_333989_, p_334142_);
-        this.positions[p_329562_] = p_332989_;
-        this.pathTypes[p_329562_] = pathtype;
-        return pathtype;
+            this.lastSectionPos = p_sectionPos;
+            this.lastSection = along;
+            return along;
+        }
     }
 
     public void invalidate(BlockPos p_332226_) {
-        long i = p_332226_.asLong();
-        int j = index(i);
-        if (this.positions[j] == i) {
-            this.pathTypes[j] = null;
+        this.connectivityGraph.invalidate(p_332226_);
+        long[] along = this.sections.get(SectionPos.asLong(p_332226_));
+        if (along != null) {
+            int i = index(p_332226_);
+            along[i / ENTRIES_PER_LONG] &= ~(ENTRY_MASK << i % ENTRIES_PER_LONG * BITS_PER_ENTRY);
+        }
+    }
+
+    public void invalidateSection(long p_sectionPos) {
+        this.sections.remove(p_sectionPos);
+        if (this.lastSectionPos == p_sectionPos) {
+            this.lastSectionPos = Long.MAX_VALUE;
+            this.lastSection = null;
         }
     }
 
-    private static int index(long p_328788_) {
-        return (int)HashCommon.mix(p_328788_) & 4095;
+    public void invalidateChunk(LevelHeightAccessor p_level, int p_chunkX, int p_chunkZ) {
+        this.connectivityGraph.invalidateChunk(p_level, p_chunkX, p_chunkZ);
+
+        for (int i = p_level.getMinSectionY(); i <= p_level.getMaxSectionY(); i++) {
+            this.invalidateSection(SectionPos.asLong(p_chunkX, i, p_chunkZ));
+        }
+    }
+
+    public SectionConnectivityGraph getConnectivityGraph() {
+        return this.connectivityGraph;
+    }
+
+    public int getCachedSectionCount() {
+        return this.sections.size();
+    }
+
+    private static int index(BlockPos p_328788_) {
+        return (p_328788_.getY() & 15) << 8 | (p_328788_.getZ() & 15) << 4 | p_328788_.getX() & 15;
     }
-}
\ No newline at end of file
+}
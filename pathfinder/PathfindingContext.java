@@ -5,6 +5,7 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.level.CollisionGetter;
+import net.minecraft.world.level.PathNavigationRegionSnapshot;
 import net.minecraft.world.level.block.state.BlockState;
 
 public class PathfindingContext {
@@ -16,7 +17,7 @@ public class PathfindingContext {
 
     public PathfindingContext(CollisionGetter p_335722_, Mob p_329527_) {
         this.level = p_335722_;
-        if (p_329527_.level() instanceof ServerLevel serverlevel) {
+        if (!(p_335722_ instanceof PathNavigationRegionSnapshot) && p_329527_.level() instanceof ServerLevel serverlevel) {
             this.cache = serverlevel.getPathTypeCache();
         } else {
             this.cache = null;
@@ -25,6 +26,12 @@ public class PathfindingContext {
         this.mobPosition = p_329527_.blockPosition();
     }
 
+    public PathfindingContext(CollisionGetter p_level, BlockPos p_mobPosition) {
+        this.level = p_level;
+        this.cache = null;
+        this.mobPosition = p_mobPosition;
+    }
+
     public PathType getPathTypeFromState(int p_332092_, int p_328372_, int p_333164_) {
         BlockPos blockpos = this.mutablePos.set(p_332092_, p_328372_, p_333164_);
         return this.cache == null ? WalkNodeEvaluator.getPathTypeFromState(this.level, blockpos) : this.cache.getOrCompute(this.level, blockpos);
@@ -0,0 +1,213 @@
+package net.minecraft.world.level.pathfinder;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.phys.AABB;
+
+public interface PathfindingMob {
+    double getX();
+
+    double getY();
+
+    double getZ();
+
+    int getBlockY();
+
+    BlockPos blockPosition();
+
+    AABB getBoundingBox();
+
+    float getBbWidth();
+
+    float getBbHeight();
+
+    float maxUpStep();
+
+    int getMaxFallDistance();
+
+    boolean onGround();
+
+    boolean isInWater();
+
+    int getSeaLevel();
+
+    float getPathfindingMalus(PathType p_pathType);
+
+    boolean canStandOnFluid(FluidState p_fluidState);
+
+    RandomSource getRandom();
+
+    default PathfindingMob withPathfindingMalus(PathType p_pathType, float p_malus) {
+        return new PathfindingMob.MalusOverride(this, p_pathType, p_malus);
+    }
+
+    static PathfindingMob of(Mob p_mob) {
+        return new PathfindingMob.Live(p_mob);
+    }
+
+    public static record Live(Mob mob) implements PathfindingMob {
+        @Override
+        public double getX() {
+            return this.mob.getX();
+        }
+
+        @Override
+        public double getY() {
+            return this.mob.getY();
+        }
+
+        @Override
+        public double getZ() {
+            return this.mob.getZ();
+        }
+
+        @Override
+        public int getBlockY() {
+            return this.mob.getBlockY();
+        }
+
+        @Override
+        public BlockPos blockPosition() {
+            return this.mob.blockPosition();
+        }
+
+        @Override
+        public AABB getBoundingBox() {
+            return this.mob.getBoundingBox();
+        }
+
+        @Override
+        public float getBbWidth() {
+            return this.mob.getBbWidth();
+        }
+
+        @Override
+        public float getBbHeight() {
+            return this.mob.getBbHeight();
+        }
+
+        @Override
+        public float maxUpStep() {
+            return this.mob.maxUpStep();
+        }
+
+        @Override
+        public int getMaxFallDistance() {
+            return this.mob.getMaxFallDistance();
+        }
+
+        @Override
+        public boolean onGround() {
+            return this.mob.onGround();
+        }
+
+        @Override
+        public boolean isInWater() {
+            return this.mob.isInWater();
+        }
+
+        @Override
+        public int getSeaLevel() {
+            return this.mob.level().getSeaLevel();
+        }
+
+        @Override
+        public float getPathfindingMalus(PathType p_pathType) {
+            return this.mob.getPathfindingMalus(p_pathType);
+        }
+
+        @Override
+        public boolean canStandOnFluid(FluidState p_fluidState) {
+            return this.mob.canStandOnFluid(p_fluidState);
+        }
+
+        @Override
+        public RandomSource getRandom() {
+            return this.mob.getRandom();
+        }
+    }
+
+    public static record MalusOverride(PathfindingMob parent, PathType pathType, float malus) implements PathfindingMob {
+        @Override
+        public double getX() {
+            return this.parent.getX();
+        }
+
+        @Override
+        public double getY() {
+            return this.parent.getY();
+        }
+
+        @Override
+        public double getZ() {
+            return this.parent.getZ();
+        }
+
+        @Override
+        public int getBlockY() {
+            return this.parent.getBlockY();
+        }
+
+        @Override
+        public BlockPos blockPosition() {
+            return this.parent.blockPosition();
+        }
+
+        @Override
+        public AABB getBoundingBox() {
+            return this.parent.getBoundingBox();
+        }
+
+        @Override
+        public float getBbWidth() {
+            return this.parent.getBbWidth();
+        }
+
+        @Override
+        public float getBbHeight() {
+            return this.parent.getBbHeight();
+        }
+
+        @Override
+        public float maxUpStep() {
+            return this.parent.maxUpStep();
+        }
+
+        @Override
+        public int getMaxFallDistance() {
+            return this.parent.getMaxFallDistance();
+        }
+
+        @Override
+        public boolean onGround() {
+            return this.parent.onGround();
+        }
+
+        @Override
+        public boolean isInWater() {
+            return this.parent.isInWater();
+        }
+
+        @Override
+        public int getSeaLevel() {
+            return this.parent.getSeaLevel();
+        }
+
+        @Override
+        public float getPathfindingMalus(PathType p_pathType) {
+            return p_pathType == this.pathType ? this.malus : this.parent.getPathfindingMalus(p_pathType);
+        }
+
+        @Override
+        public boolean canStandOnFluid(FluidState p_fluidState) {
+            return this.parent.canStandOnFluid(p_fluidState);
+        }
+
+        @Override
+        public RandomSource getRandom() {
+            return this.parent.getRandom();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package net.minecraft.world.level.pathfinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.phys.AABB;
+
+public final class PathfindingMobSnapshot implements PathfindingMob {
+    private static final PathType[] PATH_TYPES = PathType.values();
+    private final double x;
+    private final double y;
+    private final double z;
+    private final BlockPos blockPosition;
+    private final AABB boundingBox;
+    private final float bbWidth;
+    private final float bbHeight;
+    private final float maxUpStep;
+    private final int maxFallDistance;
+    private final boolean onGround;
+    private final boolean inWater;
+    private final int seaLevel;
+    private final float[] pathfindingMalus;
+    private final Set<FluidState> standableFluids;
+    private final RandomSource random;
+
+    public PathfindingMobSnapshot(Mob p_mob, RandomSource p_random) {
+        this.x = p_mob.getX();
+        this.y = p_mob.getY();
+        this.z = p_mob.getZ();
+        this.blockPosition = p_mob.blockPosition();
+        this.boundingBox = p_mob.getBoundingBox();
+        this.bbWidth = p_mob.getBbWidth();
+        this.bbHeight = p_mob.getBbHeight();
+        this.maxUpStep = p_mob.maxUpStep();
+        this.maxFallDistance = p_mob.getMaxFallDistance();
+        this.onGround = p_mob.onGround();
+        this.inWater = p_mob.isInWater();
+        this.seaLevel = p_mob.level().getSeaLevel();
+        this.pathfindingMalus = new float[PATH_TYPES.length];
+
+        for (PathType pathtype : PATH_TYPES) {
+            this.pathfindingMalus[pathtype.ordinal()] = p_mob.getPathfindingMalus(pathtype);
+        }
+
+        List<FluidState> list = new ArrayList<>();
+
+        for (FluidState fluidstate : Fluid.FLUID_STATE_REGISTRY) {
+            if (p_mob.canStandOnFluid(fluidstate)) {
+                list.add(fluidstate);
+            }
+        }
+
+        this.standableFluids = Set.copyOf(list);
+        this.random = p_random;
+    }
+
+    private PathfindingMobSnapshot(PathfindingMobSnapshot p_other, float[] p_pathfindingMalus) {
+        this.x = p_other.x;
+        this.y = p_other.y;
+        this.z = p_other.z;
+        this.blockPosition = p_other.blockPosition;
+        this.boundingBox = p_other.boundingBox;
+        this.bbWidth = p_other.bbWidth;
+        this.bbHeight = p_other.bbHeight;
+        this.maxUpStep = p_other.maxUpStep;
+        this.maxFallDistance = p_other.maxFallDistance;
+        this.onGround = p_other.onGround;
+        this.inWater = p_other.inWater;
+        this.seaLevel = p_other.seaLevel;
+        this.pathfindingMalus = p_pathfindingMalus;
+        this.standableFluids = p_other.standableFluids;
+        this.random = p_other.random;
+    }
+
+    @Override
+    public PathfindingMobSnapshot withPathfindingMalus(PathType p_pathType, float p_malus) {
+        float[] afloat = this.pathfindingMalus.clone();
+        afloat[p_pathType.ordinal()] = p_malus;
+        return new PathfindingMobSnapshot(this, afloat);
+    }
+
+    @Override
+    public double getX() {
+        return this.x;
+    }
+
+    @Override
+    public double getY() {
+        return this.y;
+    }
+
+    @Override
+    public double getZ() {
+        return this.z;
+    }
+
+    @Override
+    public int getBlockY() {
+        return this.blockPosition.getY();
+    }
+
+    @Override
+    public BlockPos blockPosition() {
+        return this.blockPosition;
+    }
+
+    @Override
+    public AABB getBoundingBox() {
+        return this.boundingBox;
+    }
+
+    @Override
+    public float getBbWidth() {
+        return this.bbWidth;
+    }
+
+    @Override
+    public float getBbHeight() {
+        return this.bbHeight;
+    }
+
+    @Override
+    public float maxUpStep() {
+        return this.maxUpStep;
+    }
+
+    @Override
+    public int getMaxFallDistance() {
+        return this.maxFallDistance;
+    }
+
+    @Override
+    public boolean onGround() {
+        return this.onGround;
+    }
+
+    @Override
+    public boolean isInWater() {
+        return this.inWater;
+    }
+
+    @Override
+    public int getSeaLevel() {
+        return this.seaLevel;
+    }
+
+    @Override
+    public float getPathfindingMalus(PathType p_pathType) {
+        return this.pathfindingMalus[p_pathType.ordinal()];
+    }
+
+    @Override
+    public boolean canStandOnFluid(FluidState p_fluidState) {
+        return this.standableFluids.contains(p_fluidState);
+    }
+
+    @Override
+    public RandomSource getRandom() {
+        return this.random;
+    }
+
+    public PathfindingMobSnapshot.SearchKey searchKey() {
+        List<Float> list = new ArrayList<>(this.pathfindingMalus.length);
+
+        for (float f : this.pathfindingMalus) {
+            list.add(f);
+        }
+
+        return new PathfindingMobSnapshot.SearchKey(
+            this.bbWidth,
+            this.bbHeight,
+            this.maxUpStep,
+            this.maxFallDistance,
+            this.onGround,
+            this.inWater,
+            List.copyOf(list),
+            this.standableFluids
+        );
+    }
+
+    public static record SearchKey(
+        float bbWidth,
+        float bbHeight,
+        float maxUpStep,
+        int maxFallDistance,
+        boolean onGround,
+        boolean inWater,
+        List<Float> pathfindingMalus,
+        Set<FluidState> standableFluids
+    ) {
+    }
+}
@@ -0,0 +1,422 @@
+package net.minecraft.world.level.pathfinder;
+
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.LevelReader;
+import org.apache.commons.lang3.mutable.MutableInt;
+
+public class SectionConnectivityGraph {
+    private static final int MAX_CACHED_SECTIONS = 4096;
+    private static final int MAX_EXPANDED_NODES = 1024;
+    private static final int MAX_COMPUTED_SECTIONS_PER_SEARCH = 32;
+    private static final int MAX_COMPONENTS = 255;
+    private static final long ROW_START_BITS = 0x0001000100010001L;
+    private static final long ROW_END_BITS = 0x8000800080008000L;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private final Long2ObjectLinkedOpenHashMap<SectionConnectivityGraph.SectionInfo> sections = new Long2ObjectLinkedOpenHashMap<>();
+
+    @Nullable
+    public BlockPos nextWaypoint(LevelReader p_level, BlockPos p_from, BlockPos p_to, int p_range) {
+        if (p_from.closerThan(p_to, (double)p_range)) {
+            return p_to;
+        } else {
+            List<BlockPos> list = this.findRoute(p_level, p_from, p_to);
+            if (list == null) {
+                return null;
+            } else {
+                BlockPos blockpos = list.get(0);
+
+                for (BlockPos blockpos1 : list) {
+                    if (p_from.closerThan(blockpos1, (double)p_range)) {
+                        blockpos = blockpos1;
+                    }
+                }
+
+                return blockpos;
+            }
+        }
+    }
+
+    @Nullable
+    public List<BlockPos> findRoute(LevelReader p_level, BlockPos p_from, BlockPos p_to) {
+        MutableInt mutableint = new MutableInt(MAX_COMPUTED_SECTIONS_PER_SEARCH);
+        long i = SectionPos.asLong(p_from);
+        long j = SectionPos.asLong(p_to);
+        SectionConnectivityGraph.SectionInfo sectionconnectivitygraph$sectioninfo = this.getOrCompute(p_level, i, mutableint);
+        SectionConnectivityGraph.SectionInfo sectionconnectivitygraph$sectioninfo1 = this.getOrCompute(p_level, j, mutableint);
+        if (sectionconnectivitygraph$sectioninfo != null && sectionconnectivitygraph$sectioninfo1 != null) {
+            int k = sectionconnectivitygraph$sectioninfo.componentAt(p_from);
+            int l = sectionconnectivitygraph$sectioninfo1.componentAt(p_to);
+            if (k >= 0 && l >= 0) {
+                SectionConnectivityGraph.GraphNode sectionconnectivitygraph$graphnode = new SectionConnectivityGraph.GraphNode(i, k);
+                SectionConnectivityGraph.GraphNode sectionconnectivitygraph$graphnode1 = new SectionConnectivityGraph.GraphNode(j, l);
+                if (sectionconnectivitygraph$graphnode.equals(sectionconnectivitygraph$graphnode1)) {
+                    return List.of(p_to);
+                } else {
+                    return this.search(p_level, sectionconnectivitygraph$graphnode, sectionconnectivitygraph$graphnode1, p_to, mutableint);
+                }
+            } else {
+                return null;
+            }
+        } else {
+            return null;
+        }
+    }
+
+    @Nullable
+    private List<BlockPos> search(
+        LevelReader p_level, SectionConnectivityGraph.GraphNode p_start, SectionConnectivityGraph.GraphNode p_goal, BlockPos p_target, MutableInt p_budget
+    ) {
+        Map<SectionConnectivityGraph.GraphNode, Float> map = new HashMap<>();
+        Map<SectionConnectivityGraph.GraphNode, SectionConnectivityGraph.GraphNode> map1 = new HashMap<>();
+        Set<SectionConnectivityGraph.GraphNode> set = new HashSet<>();
+        PriorityQueue<SectionConnectivityGraph.OpenNode> priorityqueue = new PriorityQueue<>(
+            Comparator.comparingDouble(SectionConnectivityGraph.OpenNode::f)
+        );
+        map.put(p_start, 0.0F);
+        priorityqueue.add(new SectionConnectivityGraph.OpenNode(p_start, distance(p_start.section(), p_goal.section())));
+        int i = 0;
+
+        while (!priorityqueue.isEmpty() && i++ < MAX_EXPANDED_NODES) {
+            SectionConnectivityGraph.GraphNode sectionconnectivitygraph$graphnode = priorityqueue.poll().node();
+            if (sectionconnectivitygraph$graphnode.equals(p_goal)) {
+                return this.reconstructRoute(map1, p_start, p_goal, p_target);
+            }
+
+            if (set.add(sectionconnectivitygraph$graphnode)) {
+                SectionConnectivityGraph.SectionInfo sectionconnectivitygraph$sectioninfo1 = this.sections.get(sectionconnectivitygraph$graphnode.section());
+                if (sectionconnectivitygraph$sectioninfo1 == null) {
+                    continue;
+                }
+
+                SectionConnectivityGraph.Component sectionconnectivitygraph$component = sectionconnectivitygraph$sectioninfo1.components[sectionconnectivitygraph$graphnode.component()];
+                float f = map.get(sectionconnectivitygraph$graphnode) + 1.0F;
+
+                for (Direction direction : DIRECTIONS) {
+                    if (sectionconnectivitygraph$component.hasExit(direction)) {
+                        long j = SectionPos.offset(sectionconnectivitygraph$graphnode.section(), direction);
+                        SectionConnectivityGraph.SectionInfo sectionconnectivitygraph$sectioninfo = this.getOrCompute(p_level, j, p_budget);
+                        if (sectionconnectivitygraph$sectioninfo == null) {
+                            if (p_budget.intValue() <= 0) {
+                                return null;
+                            }
+                        } else {
+                            for (int k = 0; k < sectionconnectivitygraph$sectioninfo.components.length; k++) {
+                                SectionConnectivityGraph.GraphNode sectionconnectivitygraph$graphnode1 = new SectionConnectivityGraph.GraphNode(j, k);
+                                if (!set.contains(sectionconnectivitygraph$graphnode1)
+                                    && sectionconnectivitygraph$component.connectsTo(sectionconnectivitygraph$sectioninfo.components[k], direction)
+                                    && f < map.getOrDefault(sectionconnectivitygraph$graphnode1, Float.MAX_VALUE)) {
+                                    map.put(sectionconnectivitygraph$graphnode1, f);
+                                    map1.put(sectionconnectivitygraph$graphnode1, sectionconnectivitygraph$graphnode);
+                                    priorityqueue.add(new SectionConnectivityGraph.OpenNode(sectionconnectivitygraph$graphnode1, f + distance(j, p_goal.section())));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private List<BlockPos> reconstructRoute(
+        Map<SectionConnectivityGraph.GraphNode, SectionConnectivityGraph.GraphNode> p_cameFrom,
+        SectionConnectivityGraph.GraphNode p_start,
+        SectionConnectivityGraph.GraphNode p_goal,
+        BlockPos p_target
+    ) {
+        List<BlockPos> list = Lists.newArrayList(p_target);
+        SectionConnectivityGraph.GraphNode sectionconnectivitygraph$graphnode = p_cameFrom.get(p_goal);
+
+        while (!sectionconnectivitygraph$graphnode.equals(p_start)) {
+            SectionConnectivityGraph.SectionInfo sectionconnectivitygraph$sectioninfo = this.sections.get(sectionconnectivitygraph$graphnode.section());
+            if (sectionconnectivitygraph$sectioninfo != null) {
+                list.add(BlockPos.of(sectionconnectivitygraph$sectioninfo.components[sectionconnectivitygraph$graphnode.component()].waypoint()));
+            }
+
+            sectionconnectivitygraph$graphnode = p_cameFrom.get(sectionconnectivitygraph$graphnode);
+        }
+
+        Collections.reverse(list);
+        return list;
+    }
+
+    @Nullable
+    private SectionConnectivityGraph.SectionInfo getOrCompute(LevelReader p_level, long p_section, MutableInt p_budget) {
+        SectionConnectivityGraph.SectionInfo sectionconnectivitygraph$sectioninfo = this.sections.getAndMoveToLast(p_section);
+        if (sectionconnectivitygraph$sectioninfo == null) {
+            if (p_budget.intValue() <= 0) {
+                return null;
+            }
+
+            sectionconnectivitygraph$sectioninfo = compute(p_level, p_section);
+            if (sectionconnectivitygraph$sectioninfo == null) {
+                return null;
+            }
+
+            p_budget.decrement();
+            this.sections.putAndMoveToLast(p_section, sectionconnectivitygraph$sectioninfo);
+            if (this.sections.size() > MAX_CACHED_SECTIONS) {
+                this.sections.removeFirst();
+            }
+        }
+
+        return sectionconnectivitygraph$sectioninfo;
+    }
+
+    @Nullable
+    private static SectionConnectivityGraph.SectionInfo compute(LevelReader p_level, long p_section) {
+        int i = SectionPos.x(p_section);
+        int j = SectionPos.y(p_section);
+        int k = SectionPos.z(p_section);
+        if (j < p_level.getMinSectionY() || j > p_level.getMaxSectionY()) {
+            return SectionConnectivityGraph.SectionInfo.CLOSED;
+        } else if (!p_level.hasChunk(i, k)) {
+            return null;
+        } else {
+            long[] along = computeStandable(p_level, i, j, k);
+            byte[] abyte = new byte[4096];
+            List<SectionConnectivityGraph.Component> list = new ArrayList<>();
+            IntArrayFIFOQueue intarrayfifoqueue = new IntArrayFIFOQueue();
+
+            for (int l = 0; l < 4096 && list.size() < MAX_COMPONENTS; l++) {
+                if (isSet(along, l) && abyte[l] == 0) {
+                    list.add(floodFill(along, abyte, l, (byte)(list.size() + 1), intarrayfifoqueue, i, j, k));
+                }
+            }
+
+            return new SectionConnectivityGraph.SectionInfo(
+                list.toArray(SectionConnectivityGraph.Component[]::new), list.size() > 1 ? abyte : null
+            );
+        }
+    }
+
+    private static long[] computeStandable(LevelReader p_level, int p_sectionX, int p_sectionY, int p_sectionZ) {
+        BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
+        int i = SectionPos.sectionToBlockCoord(p_sectionX);
+        int j = SectionPos.sectionToBlockCoord(p_sectionY);
+        int k = SectionPos.sectionToBlockCoord(p_sectionZ);
+        PathType[] apathtype = new PathType[18 * 256];
+
+        for (int l = 0; l < 18; l++) {
+            for (int i1 = 0; i1 < 16; i1++) {
+                for (int j1 = 0; j1 < 16; j1++) {
+                    apathtype[l << 8 | i1 << 4 | j1] = WalkNodeEvaluator.getPathTypeFromState(p_level, blockpos$mutableblockpos.set(i + j1, j + l - 1, k + i1));
+                }
+            }
+        }
+
+        long[] along = new long[64];
+
+        for (int k1 = 0; k1 < 4096; k1++) {
+            if (isFloor(apathtype[k1]) && isPassable(apathtype[k1 + 256]) && isPassable(apathtype[k1 + 512])) {
+                along[k1 >> 6] |= 1L << k1;
+            }
+        }
+
+        return along;
+    }
+
+    private static SectionConnectivityGraph.Component floodFill(
+        long[] p_standable, byte[] p_labels, int p_start, byte p_label, IntArrayFIFOQueue p_queue, int p_sectionX, int p_sectionY, int p_sectionZ
+    ) {
+        long[] along = new long[24];
+        int i = 0;
+        int j = p_start;
+        int k = Integer.MAX_VALUE;
+        p_labels[p_start] = p_label;
+        p_queue.enqueue(p_start);
+
+        while (!p_queue.isEmpty()) {
+            int l = p_queue.dequeueInt();
+            int i1 = l & 15;
+            int j1 = l >> 8;
+            int k1 = l >> 4 & 15;
+            i |= markFaces(along, i1, j1, k1);
+            int l1 = Math.abs(i1 - 8) + Math.abs(j1 - 8) + Math.abs(k1 - 8);
+            if (l1 < k) {
+                k = l1;
+                j = l;
+            }
+
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                int i2 = i1 + direction.getStepX();
+                int j2 = k1 + direction.getStepZ();
+                if (i2 >= 0 && i2 < 16 && j2 >= 0 && j2 < 16) {
+                    for (int k2 = Math.max(0, j1 - 1); k2 <= Math.min(15, j1 + 1); k2++) {
+                        int l2 = k2 << 8 | j2 << 4 | i2;
+                        if (isSet(p_standable, l2) && p_labels[l2] == 0) {
+                            p_labels[l2] = p_label;
+                            p_queue.enqueue(l2);
+                        }
+                    }
+                }
+            }
+        }
+
+        return new SectionConnectivityGraph.Component(
+            along,
+            (byte)i,
+            BlockPos.asLong(
+                SectionPos.sectionToBlockCoord(p_sectionX) + (j & 15),
+                SectionPos.sectionToBlockCoord(p_sectionY) + (j >> 8),
+                SectionPos.sectionToBlockCoord(p_sectionZ) + (j >> 4 & 15)
+            )
+        );
+    }
+
+    private static int markFaces(long[] p_faces, int p_x, int p_y, int p_z) {
+        int i = 0;
+        if (p_y == 0) {
+            i |= markFace(p_faces, Direction.DOWN, p_x << 4 | p_z);
+        } else if (p_y == 15) {
+            i |= markFace(p_faces, Direction.UP, p_x << 4 | p_z);
+        }
+
+        if (p_z == 0) {
+            i |= markFace(p_faces, Direction.NORTH, p_y << 4 | p_x);
+        } else if (p_z == 15) {
+            i |= markFace(p_faces, Direction.SOUTH, p_y << 4 | p_x);
+        }
+
+        if (p_x == 0) {
+            i |= markFace(p_faces, Direction.WEST, p_y << 4 | p_z);
+        } else if (p_x == 15) {
+            i |= markFace(p_faces, Direction.EAST, p_y << 4 | p_z);
+        }
+
+        return i;
+    }
+
+    private static int markFace(long[] p_faces, Direction p_face, int p_bit) {
+        p_faces[p_face.get3DDataValue() * 4 + (p_bit >> 6)] |= 1L << p_bit;
+        return 1 << p_face.get3DDataValue();
+    }
+
+    private static boolean isSet(long[] p_bits, int p_index) {
+        return (p_bits[p_index >> 6] & 1L << p_index) != 0L;
+    }
+
+    private static boolean isPassable(PathType p_pathType) {
+        return p_pathType == PathType.OPEN || p_pathType == PathType.DOOR_OPEN || p_pathType == PathType.DOOR_WOOD_CLOSED || p_pathType == PathType.RAIL;
+    }
+
+    private static boolean isFloor(PathType p_pathType) {
+        return p_pathType == PathType.BLOCKED || p_pathType == PathType.LEAVES || p_pathType == PathType.TRAPDOOR || p_pathType == PathType.STICKY_HONEY;
+    }
+
+    private static float distance(long p_from, long p_to) {
+        float f = (float)(SectionPos.x(p_to) - SectionPos.x(p_from));
+        float f1 = (float)(SectionPos.y(p_to) - SectionPos.y(p_from));
+        float f2 = (float)(SectionPos.z(p_to) - SectionPos.z(p_from));
+        return (float)Math.sqrt((double)(f * f + f1 * f1 + f2 * f2));
+    }
+
+    public void invalidate(BlockPos p_pos) {
+        this.sections.remove(SectionPos.asLong(p_pos));
+        int i = p_pos.getY() & 15;
+        if (i == 0) {
+            this.sections.remove(SectionPos.asLong(p_pos.below()));
+        } else if (i == 15) {
+            this.sections.remove(SectionPos.asLong(p_pos.above()));
+        }
+    }
+
+    public void invalidateChunk(LevelHeightAccessor p_level, int p_chunkX, int p_chunkZ) {
+        for (int i = p_level.getMinSectionY(); i <= p_level.getMaxSectionY(); i++) {
+            this.sections.remove(SectionPos.asLong(p_chunkX, i, p_chunkZ));
+        }
+    }
+
+    public int getCachedSectionCount() {
+        return this.sections.size();
+    }
+
+    static record Component(long[] faces, byte exits, long waypoint) {
+        boolean hasExit(Direction p_direction) {
+            return (this.exits & 1 << p_direction.get3DDataValue()) != 0;
+        }
+
+        boolean connectsTo(SectionConnectivityGraph.Component p_other, Direction p_direction) {
+            int i = p_direction.get3DDataValue() * 4;
+            int j = p_direction.getOpposite().get3DDataValue() * 4;
+            boolean flag = p_direction.getAxis() == Direction.Axis.Y;
+
+            for (int k = 0; k < 4; k++) {
+                long l = this.faces[i + k];
+                long i1 = l << 16 | (k > 0 ? this.faces[i + k - 1] >>> 48 : 0L) | l >>> 16 | (k < 3 ? this.faces[i + k + 1] << 48 : 0L);
+                if (flag) {
+                    i1 |= l << 1 & ~ROW_START_BITS | l >>> 1 & ~ROW_END_BITS;
+                } else {
+                    i1 |= l;
+                }
+
+                if ((i1 & p_other.faces[j + k]) != 0L) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    static record GraphNode(long section, int component) {
+    }
+
+    static record OpenNode(SectionConnectivityGraph.GraphNode node, float f) {
+    }
+
+    static class SectionInfo {
+        static final SectionConnectivityGraph.SectionInfo CLOSED = new SectionConnectivityGraph.SectionInfo(new SectionConnectivityGraph.Component[0], null);
+        final SectionConnectivityGraph.Component[] components;
+        @Nullable
+        private final byte[] labels;
+
+        SectionInfo(SectionConnectivityGraph.Component[] p_components, @Nullable byte[] p_labels) {
+            this.components = p_components;
+            this.labels = p_labels;
+        }
+
+        int componentAt(BlockPos p_pos) {
+            if (this.components.length == 0) {
+                return -1;
+            } else if (this.labels == null) {
+                return 0;
+            } else {
+                int i = p_pos.getX() & 15;
+                int j = p_pos.getY() & 15;
+                int k = p_pos.getZ() & 15;
+                int l = this.labelAt(i, j, k);
+                if (l == 0 && j < 15) {
+                    l = this.labelAt(i, j + 1, k);
+                }
+
+                if (l == 0 && j > 0) {
+                    l = this.labelAt(i, j - 1, k);
+                }
+
+                return l - 1;
+            }
+        }
+
+        private int labelAt(int p_x, int p_y, int p_z) {
+            return this.labels[p_y << 8 | p_z << 4 | p_x] & 255;
+        }
+    }
+}
@@ -9,8 +9,6 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.tags.FluidTags;
 import net.minecraft.util.Mth;
-import net.minecraft.world.entity.Mob;
-import net.minecraft.world.level.PathNavigationRegion;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.FluidState;
 
@@ -23,11 +21,16 @@ public class SwimNodeEvaluator extends NodeEvaluator {
     }
 
     @Override
-    public void prepare(PathNavigationRegion p_192959_, Mob p_192960_) {
+    protected void prepare(PathfindingContext p_192959_, PathfindingMob p_192960_) {
         super.prepare(p_192959_, p_192960_);
         this.pathTypesByPosCache.clear();
     }
 
+    @Override
+    public NodeEvaluator copy() {
+        return this.copySettingsTo(new SwimNodeEvaluator(this.allowBreaching));
+    }
+
     @Override
     public void done() {
         super.done();
@@ -37,9 +40,9 @@ public class SwimNodeEvaluator extends NodeEvaluator {
     @Override
     public Node getStart() {
         return this.getNode(
-            Mth.floor(this.mob.getBoundingBox().minX),
-            Mth.floor(this.mob.getBoundingBox().minY + 0.5),
-            Mth.floor(this.mob.getBoundingBox().minZ)
+            Mth.floor(this.pathfindingMob.getBoundingBox().minX),
+            Mth.floor(this.pathfindingMob.getBoundingBox().minY + 0.5),
+            Mth.floor(this.pathfindingMob.getBoundingBox().minZ)
         );
     }
 
@@ -93,7 +96,7 @@ public class SwimNodeEvaluator extends NodeEvaluator {
         Node node = null;
         PathType pathtype = this.getCachedBlockType(p_263032_, p_263066_, p_263105_);
         if (this.allowBreaching && pathtype == PathType.BREACH || pathtype == PathType.WATER) {
-            float f = this.mob.getPathfindingMalus(pathtype);
+            float f = this.pathfindingMob.getPathfindingMalus(pathtype);
             if (f >= 0.0F) {
                 node = this.getNode(p_263032_, p_263066_, p_263105_);
                 node.type = pathtype;
@@ -114,11 +117,11 @@ public class SwimNodeEvaluator extends NodeEvaluator {
 
     @Override
     public PathType getPathType(PathfindingContext p_333668_, int p_333001_, int p_328513_, int p_333109_) {
-        return this.getPathTypeOfMob(p_333668_, p_333001_, p_328513_, p_333109_, this.mob);
+        return this.getPathTypeOfMob(p_333668_, p_333001_, p_328513_, p_333109_, this.pathfindingMob);
     }
 
     @Override
-    public PathType getPathTypeOfMob(PathfindingContext p_327815_, int p_334955_, int p_333227_, int p_331057_, Mob p_333533_) {
+    public PathType getPathTypeOfMob(PathfindingContext p_327815_, int p_334955_, int p_333227_, int p_331057_, PathfindingMob p_333533_) {
         BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
 
         for (int i = p_334955_; i < p_334955_ + this.entityWidth; i++) {
@@ -37,13 +37,21 @@ public class WalkNodeEvaluator extends NodeEvaluator {
 
     @Override
     public void prepare(PathNavigationRegion p_77620_, Mob p_77621_) {
-        super.prepare(p_77620_, p_77621_);
         p_77621_.onPathfindingStart();
+        super.prepare(p_77620_, p_77621_);
+    }
+
+    @Override
+    public NodeEvaluator copy() {
+        return this.copySettingsTo(new WalkNodeEvaluator());
     }
 
     @Override
     public void done() {
-        this.mob.onPathfindingDone();
+        if (this.mob != null) {
+            this.mob.onPathfindingDone();
+        }
+
         this.pathTypesByPosCacheByMob.clear();
         this.collisionCache.clear();
         super.done();
@@ -52,10 +60,10 @@ public class WalkNodeEvaluator extends NodeEvaluator {
     @Override
     public Node getStart() {
         BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
-        int i = this.mob.getBlockY();
-        BlockState blockstate = this.currentContext.getBlockState(blockpos$mutableblockpos.set(this.mob.getX(), (double)i, this.mob.getZ()));
-        if (!this.mob.canStandOnFluid(blockstate.getFluidState())) {
-            if (this.canFloat() && this.mob.isInWater()) {
+        int i = this.pathfindingMob.getBlockY();
+        BlockState blockstate = this.currentContext.getBlockState(blockpos$mutableblockpos.set(this.pathfindingMob.getX(), (double)i, this.pathfindingMob.getZ()));
+        if (!this.pathfindingMob.canStandOnFluid(blockstate.getFluidState())) {
+            if (this.canFloat() && this.pathfindingMob.isInWater()) {
                 while (true) {
                     if (!blockstate.is(Blocks.WATER) && blockstate.getFluidState() != Fluids.WATER.getSource(false)) {
                         i--;
@@ -63,12 +71,12 @@ public class WalkNodeEvaluator extends NodeEvaluator {
                     }
 
                     blockstate = this.currentContext
-                        .getBlockState(blockpos$mutableblockpos.set(this.mob.getX(), (double)(++i), this.mob.getZ()));
+                        .getBlockState(blockpos$mutableblockpos.set(this.pathfindingMob.getX(), (double)(++i), this.pathfindingMob.getZ()));
                 }
-            } else if (this.mob.onGround()) {
-                i = Mth.floor(this.mob.getY() + 0.5);
+            } else if (this.pathfindingMob.onGround()) {
+                i = Mth.floor(this.pathfindingMob.getY() + 0.5);
             } else {
-                blockpos$mutableblockpos.set(this.mob.getX(), this.mob.getY() + 1.0, this.mob.getZ());
+                blockpos$mutableblockpos.set(this.pathfindingMob.getX(), this.pathfindingMob.getY() + 1.0, this.pathfindingMob.getZ());
 
                 while (blockpos$mutableblockpos.getY() > this.currentContext.level().getMinY()) {
                     i = blockpos$mutableblockpos.getY();
@@ -80,16 +88,16 @@ public class WalkNodeEvaluator extends NodeEvaluator {
                 }
             }
         } else {
-            while (this.mob.canStandOnFluid(blockstate.getFluidState())) {
-                blockstate = this.currentContext.getBlockState(blockpos$mutableblockpos.set(this.mob.getX(), (double)(++i), this.mob.getZ()));
+            while (this.pathfindingMob.canStandOnFluid(blockstate.getFluidState())) {
+                blockstate = this.currentContext.getBlockState(blockpos$mutableblockpos.set(this.pathfindingMob.getX(), (double)(++i), this.pathfindingMob.getZ()));
             }
 
             i--;
         }
 
-        BlockPos blockpos = this.mob.blockPosition();
+        BlockPos blockpos = this.pathfindingMob.blockPosition();
         if (!this.canStartAt(blockpos$mutableblockpos.set(blockpos.getX(), i, blockpos.getZ()))) {
-            AABB aabb = this.mob.getBoundingBox();
+            AABB aabb = this.pathfindingMob.getBoundingBox();
             if (this.canStartAt(blockpos$mutableblockpos.set(aabb.minX, (double)i, aabb.minZ))
                 || this.canStartAt(blockpos$mutableblockpos.set(aabb.minX, (double)i, aabb.maxZ))
                 || this.canStartAt(blockpos$mutableblockpos.set(aabb.maxX, (double)i, aabb.minZ))
@@ -104,13 +112,13 @@ public class WalkNodeEvaluator extends NodeEvaluator {
     protected Node getStartNode(BlockPos p_230632_) {
         Node node = this.getNode(p_230632_);
         node.type = this.getCachedPathType(node.x, node.y, node.z);
-        node.costMalus = this.mob.getPathfindingMalus(node.type);
+        node.costMalus = this.pathfindingMob.getPathfindingMalus(node.type);
         return node;
     }
 
     protected boolean canStartAt(BlockPos p_262596_) {
         PathType pathtype = this.getCachedPathType(p_262596_.getX(), p_262596_.getY(), p_262596_.getZ());
-        return pathtype != PathType.OPEN && this.mob.getPathfindingMalus(pathtype) >= 0.0F;
+        return pathtype != PathType.OPEN && this.pathfindingMob.getPathfindingMalus(pathtype) >= 0.0F;
     }
 
     @Override
@@ -124,8 +132,8 @@ public class WalkNodeEvaluator extends NodeEvaluator {
         int j = 0;
         PathType pathtype = this.getCachedPathType(p_77641_.x, p_77641_.y + 1, p_77641_.z);
         PathType pathtype1 = this.getCachedPathType(p_77641_.x, p_77641_.y, p_77641_.z);
-        if (this.mob.getPathfindingMalus(pathtype) >= 0.0F && pathtype1 != PathType.STICKY_HONEY) {
-            j = Mth.floor(Math.max(1.0F, this.mob.maxUpStep()));
+        if (this.pathfindingMob.getPathfindingMalus(pathtype) >= 0.0F && pathtype1 != PathType.STICKY_HONEY) {
+            j = Mth.floor(Math.max(1.0F, this.pathfindingMob.maxUpStep()));
         }
 
         double d0 = this.getFloorLevel(new BlockPos(p_77641_.x, p_77641_.y, p_77641_.z));
@@ -169,7 +177,7 @@ public class WalkNodeEvaluator extends NodeEvaluator {
         if (p_77632_ == null || p_77631_ == null || p_77632_.y > p_77630_.y || p_77631_.y > p_77630_.y) {
             return false;
         } else if (p_77631_.type != PathType.WALKABLE_DOOR && p_77632_.type != PathType.WALKABLE_DOOR) {
-            boolean flag = p_77632_.type == PathType.FENCE && p_77631_.type == PathType.FENCE && (double)this.mob.getBbWidth() < 0.5;
+            boolean flag = p_77632_.type == PathType.FENCE && p_77631_.type == PathType.FENCE && (double)this.pathfindingMob.getBbWidth() < 0.5;
             return (p_77632_.y < p_77630_.y || p_77632_.costMalus >= 0.0F || flag)
                 && (p_77631_.y < p_77630_.y || p_77631_.costMalus >= 0.0F || flag);
         } else {
@@ -190,11 +198,11 @@ public class WalkNodeEvaluator extends NodeEvaluator {
     }
 
     private boolean canReachWithoutCollision(Node p_77625_) {
-        AABB aabb = this.mob.getBoundingBox();
+        AABB aabb = this.pathfindingMob.getBoundingBox();
         Vec3 vec3 = new Vec3(
-            (double)p_77625_.x - this.mob.getX() + aabb.getXsize() / 2.0,
-            (double)p_77625_.y - this.mob.getY() + aabb.getYsize() / 2.0,
-            (double)p_77625_.z - this.mob.getZ() + aabb.getZsize() / 2.0
+            (double)p_77625_.x - this.pathfindingMob.getX() + aabb.getXsize() / 2.0,
+            (double)p_77625_.y - this.pathfindingMob.getY() + aabb.getYsize() / 2.0,
+            (double)p_77625_.z - this.pathfindingMob.getZ() + aabb.getZsize() / 2.0
         );
         int i = Mth.ceil(vec3.length() / aabb.getSize());
         vec3 = vec3.scale((double)(1.0F / (float)i));
@@ -235,7 +243,7 @@ public class WalkNodeEvaluator extends NodeEvaluator {
             return null;
         } else {
             PathType pathtype = this.getCachedPathType(p_164726_, p_164727_, p_164728_);
-            float f = this.mob.getPathfindingMalus(pathtype);
+            float f = this.pathfindingMob.getPathfindingMalus(pathtype);
             if (f >= 0.0F) {
                 node = this.getNodeAndUpdateCostToMax(p_164726_, p_164727_, p_164728_, pathtype, f);
             }
@@ -268,7 +276,7 @@ public class WalkNodeEvaluator extends NodeEvaluator {
     }
 
     private double getMobJumpHeight() {
-        return Math.max(1.125, (double)this.mob.maxUpStep());
+        return Math.max(1.125, (double)this.pathfindingMob.maxUpStep());
     }
 
     private Node getNodeAndUpdateCostToMax(int p_230620_, int p_230621_, int p_230622_, PathType p_335762_, float p_230624_) {
@@ -307,20 +315,20 @@ public class WalkNodeEvaluator extends NodeEvaluator {
         Node node = this.findAcceptedNode(p_335353_, p_333388_ + 1, p_331837_, p_329120_ - 1, p_335627_, p_334618_, p_330418_);
         if (node == null) {
             return null;
-        } else if (this.mob.getBbWidth() >= 1.0F) {
+        } else if (this.pathfindingMob.getBbWidth() >= 1.0F) {
             return node;
         } else if (node.type != PathType.OPEN && node.type != PathType.WALKABLE) {
             return node;
         } else {
             double d0 = (double)(p_335353_ - p_334618_.getStepX()) + 0.5;
             double d1 = (double)(p_331837_ - p_334618_.getStepZ()) + 0.5;
-            double d2 = (double)this.mob.getBbWidth() / 2.0;
+            double d2 = (double)this.pathfindingMob.getBbWidth() / 2.0;
             AABB aabb = new AABB(
                 d0 - d2,
                 this.getFloorLevel(p_329431_.set(d0, (double)(p_333388_ + 1), d1)) + 0.001,
                 d1 - d2,
                 d0 + d2,
-                (double)this.mob.getBbHeight()
+                (double)this.pathfindingMob.getBbHeight()
                     + this.getFloorLevel(p_329431_.set((double)node.x, (double)node.y, (double)node.z))
                     - 0.002,
                 d1 + d2
@@ -333,13 +341,13 @@ public class WalkNodeEvaluator extends NodeEvaluator {
     private Node tryFindFirstNonWaterBelow(int p_334565_, int p_335840_, int p_330496_, @Nullable Node p_327969_) {
         p_335840_--;
 
-        while (p_335840_ > this.mob.level().getMinY()) {
+        while (p_335840_ > this.currentContext.level().getMinY()) {
             PathType pathtype = this.getCachedPathType(p_334565_, p_335840_, p_330496_);
             if (pathtype != PathType.WATER) {
                 return p_327969_;
             }
 
-            p_327969_ = this.getNodeAndUpdateCostToMax(p_334565_, p_335840_, p_330496_, pathtype, this.mob.getPathfindingMalus(pathtype));
+            p_327969_ = this.getNodeAndUpdateCostToMax(p_334565_, p_335840_, p_330496_, pathtype, this.pathfindingMob.getPathfindingMalus(pathtype));
             p_335840_--;
         }
 
@@ -347,13 +355,13 @@ public class WalkNodeEvaluator extends NodeEvaluator {
     }
 
     private Node tryFindFirstGroundNodeBelow(int p_335495_, int p_328639_, int p_335885_) {
-        for (int i = p_328639_ - 1; i >= this.mob.level().getMinY(); i--) {
-            if (p_328639_ - i > this.mob.getMaxFallDistance()) {
+        for (int i = p_328639_ - 1; i >= this.currentContext.level().getMinY(); i--) {
+            if (p_328639_ - i > this.pathfindingMob.getMaxFallDistance()) {
                 return this.getBlockedNode(p_335495_, i, p_335885_);
             }
 
             PathType pathtype = this.getCachedPathType(p_335495_, i, p_335885_);
-            float f = this.mob.getPathfindingMalus(pathtype);
+            float f = this.pathfindingMob.getPathfindingMalus(pathtype);
             if (pathtype != PathType.OPEN) {
                 if (f >= 0.0F) {
                     return this.getNodeAndUpdateCostToMax(p_335495_, i, p_335885_, pathtype, f);
@@ -374,12 +382,12 @@ public class WalkNodeEvaluator extends NodeEvaluator {
         return this.pathTypesByPosCacheByMob
             .computeIfAbsent(
                 BlockPos.asLong(p_328411_, p_334833_, p_334446_),
-                p_327521_ -> this.getPathTypeOfMob(this.currentContext, p_328411_, p_334833_, p_334446_, this.mob)
+                p_327521_ -> this.getPathTypeOfMob(this.currentContext, p_328411_, p_334833_, p_334446_, this.pathfindingMob)
             );
     }
 
     @Override
-    public PathType getPathTypeOfMob(PathfindingContext p_336212_, int p_330284_, int p_332224_, int p_335362_, Mob p_327680_) {
+    public PathType getPathTypeOfMob(PathfindingContext p_336212_, int p_330284_, int p_332224_, int p_335362_, PathfindingMob p_327680_) {
         Set<PathType> set = this.getPathTypeWithinMobBB(p_336212_, p_330284_, p_332224_, p_335362_);
         if (set.contains(PathType.FENCE)) {
             return PathType.FENCE;
@@ -417,7 +425,7 @@ public class WalkNodeEvaluator extends NodeEvaluator {
                     int i1 = j + p_330052_;
                     int j1 = k + p_334476_;
                     PathType pathtype = this.getPathType(p_334304_, l, i1, j1);
-                    BlockPos blockpos = this.mob.blockPosition();
+                    BlockPos blockpos = this.pathfindingMob.blockPosition();
                     boolean flag = this.canPassDoors();
                     if (pathtype == PathType.DOOR_WOOD_CLOSED && this.canOpenDoors() && flag) {
                         pathtype = PathType.WALKABLE_DOOR;
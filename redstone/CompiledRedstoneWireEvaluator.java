@@ -0,0 +1,369 @@
+package net.minecraft.world.level.redstone;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.RedStoneWireBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.EnumProperty;
+import net.minecraft.world.level.block.state.properties.RedstoneSide;
+
+public class CompiledRedstoneWireEvaluator extends RedstoneWireEvaluator {
+    private static final int RETAINED_CAPACITY = 1024;
+    private static final byte QUEUED_TO_TURN_OFF = 1;
+    private static final byte QUEUED_TO_TURN_ON = 2;
+    private static final byte UNCHANGED = 4;
+    private final Long2IntOpenHashMap nodeIndex = new Long2IntOpenHashMap();
+    private final Long2ObjectOpenHashMap<BlockState> blockStates = new Long2ObjectOpenHashMap<>();
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private final IntArrayFIFOQueue wiresToTurnOff = new IntArrayFIFOQueue();
+    private final IntArrayFIFOQueue wiresToTurnOn = new IntArrayFIFOQueue();
+    private final LongArrayList edgePositions = new LongArrayList();
+    private final IntArrayList edgeData = new IntArrayList();
+    private int nodeCount;
+    private long[] positions = new long[16];
+    private int[] powers = new int[16];
+    private byte[] flags = new byte[16];
+    private int[] blockSignals = new int[16];
+    private int[] incomingStart = new int[16];
+    private int[] incomingEnd = new int[16];
+    private int[] outgoingStart = new int[16];
+    private int[] outgoingEnd = new int[16];
+    private boolean running;
+
+    public CompiledRedstoneWireEvaluator(RedStoneWireBlock p_wireBlock) {
+        super(p_wireBlock);
+        this.nodeIndex.defaultReturnValue(-1);
+    }
+
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    @Override
+    public void updatePowerStrength(Level p_level, BlockPos p_pos, BlockState p_state, @Nullable Orientation p_orientation, boolean p_updateShape) {
+        this.running = true;
+
+        try {
+            this.calculateCurrentChanges(p_level, p_pos, getInitialOrientation(p_level, p_orientation));
+
+            for (int i = 0; i < this.nodeCount; i++) {
+                BlockPos blockpos = BlockPos.of(this.positions[i]);
+                int j = unpackPower(this.powers[i]);
+                BlockState blockstate = p_level.getBlockState(blockpos);
+                if (blockstate.is(this.wireBlock) && !blockstate.getValue(RedStoneWireBlock.POWER).equals(j)) {
+                    int k = 2;
+                    if (!p_updateShape || i != 0) {
+                        k |= 128;
+                    }
+
+                    p_level.setBlock(blockpos, blockstate.setValue(RedStoneWireBlock.POWER, Integer.valueOf(j)), k);
+                } else {
+                    this.flags[i] = (byte)(this.flags[i] | UNCHANGED);
+                }
+            }
+
+            this.causeNeighborUpdates(p_level);
+        } finally {
+            this.reset();
+            this.running = false;
+        }
+    }
+
+    private void causeNeighborUpdates(Level p_level) {
+        for (int i = 0; i < this.nodeCount; i++) {
+            if ((this.flags[i] & UNCHANGED) == 0) {
+                BlockPos blockpos = BlockPos.of(this.positions[i]);
+                Orientation orientation = unpackOrientation(this.powers[i]);
+                BlockState blockstate = p_level.getBlockState(blockpos);
+
+                for (Direction direction : orientation.getDirections()) {
+                    if (isConnected(blockstate, direction)) {
+                        BlockPos blockpos1 = blockpos.relative(direction);
+                        BlockState blockstate1 = p_level.getBlockState(blockpos1);
+                        Orientation orientation1 = orientation.withFrontPreserveUp(direction);
+                        p_level.neighborChanged(blockstate1, blockpos1, this.wireBlock, orientation1, false);
+                        if (blockstate1.isRedstoneConductor(p_level, blockpos1)) {
+                            for (Direction direction1 : orientation1.getDirections()) {
+                                if (direction1 != direction.getOpposite()) {
+                                    p_level.neighborChanged(blockpos1.relative(direction1), this.wireBlock, orientation1.withFrontPreserveUp(direction1));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void reset() {
+        if (this.nodeCount > RETAINED_CAPACITY) {
+            this.nodeIndex.clear();
+            this.nodeIndex.trim(RETAINED_CAPACITY);
+            this.blockStates.clear();
+            this.blockStates.trim(RETAINED_CAPACITY);
+        } else {
+            this.nodeIndex.clear();
+            this.blockStates.clear();
+        }
+
+        this.nodeCount = 0;
+        this.wiresToTurnOff.clear();
+        this.wiresToTurnOn.clear();
+        this.edgePositions.clear();
+        this.edgeData.clear();
+    }
+
+    private static boolean isConnected(BlockState p_state, Direction p_direction) {
+        EnumProperty<RedstoneSide> enumproperty = RedStoneWireBlock.PROPERTY_BY_DIRECTION.get(p_direction);
+        return enumproperty == null ? p_direction == Direction.DOWN : p_state.getValue(enumproperty).isConnected();
+    }
+
+    private static Orientation getInitialOrientation(Level p_level, @Nullable Orientation p_orientation) {
+        Orientation orientation;
+        if (p_orientation != null) {
+            orientation = p_orientation;
+        } else {
+            orientation = Orientation.random(p_level.random);
+        }
+
+        return orientation.withUp(Direction.UP).withSideBias(Orientation.SideBias.LEFT);
+    }
+
+    private void calculateCurrentChanges(Level p_level, BlockPos p_pos, Orientation p_orientation) {
+        BlockState blockstate = this.getCachedBlockState(p_level, p_pos.asLong());
+        if (blockstate.is(this.wireBlock)) {
+            int i = this.setPower(p_pos.asLong(), blockstate.getValue(RedStoneWireBlock.POWER), p_orientation);
+            this.enqueue(this.wiresToTurnOff, i, QUEUED_TO_TURN_OFF);
+        } else {
+            int j = this.edgePositions.size();
+            this.compileOutgoingEdges(p_level, p_pos, p_orientation, RedstoneWireGraph.compileTopology(p_level, p_pos));
+            this.propagateChangeToNeighbors(j, this.edgePositions.size(), 0, true);
+        }
+
+        while (!this.wiresToTurnOff.isEmpty()) {
+            int k = this.dequeue(this.wiresToTurnOff, QUEUED_TO_TURN_OFF);
+            int l = unpackPower(this.powers[k]);
+            int i1 = this.getBlockSignal(p_level, k);
+            int j1 = this.getIncomingWireSignal(p_level, k);
+            int k1 = Math.max(i1, j1);
+            int l1;
+            if (k1 < l) {
+                if (i1 > 0 && (this.flags[k] & QUEUED_TO_TURN_ON) == 0) {
+                    this.enqueue(this.wiresToTurnOn, k, QUEUED_TO_TURN_ON);
+                }
+
+                l1 = 0;
+            } else {
+                l1 = k1;
+            }
+
+            if (l1 != l) {
+                this.powers[k] = this.powers[k] & ~15 | l1;
+            }
+
+            this.propagateChangeToNeighbors(p_level, k, l1, l > k1);
+        }
+
+        while (!this.wiresToTurnOn.isEmpty()) {
+            int i2 = this.dequeue(this.wiresToTurnOn, QUEUED_TO_TURN_ON);
+            int j2 = unpackPower(this.powers[i2]);
+            int k2 = Math.max(this.getBlockSignal(p_level, i2), this.getIncomingWireSignal(p_level, i2));
+            if (k2 > j2) {
+                this.powers[i2] = this.powers[i2] & ~15 | k2;
+            } else if (k2 < j2) {
+                throw new IllegalStateException("Turning off wire while trying to turn it on. Should not happen.");
+            }
+
+            this.propagateChangeToNeighbors(p_level, i2, k2, false);
+        }
+    }
+
+    private void enqueue(IntArrayFIFOQueue p_queue, int p_node, byte p_flag) {
+        p_queue.enqueue(p_node);
+        this.flags[p_node] = (byte)(this.flags[p_node] | p_flag);
+    }
+
+    private int dequeue(IntArrayFIFOQueue p_queue, byte p_flag) {
+        int i = p_queue.dequeueInt();
+        this.flags[i] = (byte)(this.flags[i] & ~p_flag);
+        return i;
+    }
+
+    private static int packOrientationAndPower(Orientation p_orientation, int p_power) {
+        return p_orientation.getIndex() << 4 | p_power;
+    }
+
+    private static Orientation unpackOrientation(int p_packed) {
+        return Orientation.fromIndex(p_packed >> 4);
+    }
+
+    private static int unpackPower(int p_packed) {
+        return p_packed & 15;
+    }
+
+    private int setPower(long p_pos, int p_power, Orientation p_orientation) {
+        int i = this.nodeIndex.get(p_pos);
+        if (i != -1) {
+            this.powers[i] = this.powers[i] & ~15 | p_power;
+            return i;
+        } else {
+            i = this.nodeCount++;
+            if (i == this.positions.length) {
+                int j = i * 2;
+                this.positions = Arrays.copyOf(this.positions, j);
+                this.powers = Arrays.copyOf(this.powers, j);
+                this.flags = Arrays.copyOf(this.flags, j);
+                this.blockSignals = Arrays.copyOf(this.blockSignals, j);
+                this.incomingStart = Arrays.copyOf(this.incomingStart, j);
+                this.incomingEnd = Arrays.copyOf(this.incomingEnd, j);
+                this.outgoingStart = Arrays.copyOf(this.outgoingStart, j);
+                this.outgoingEnd = Arrays.copyOf(this.outgoingEnd, j);
+            }
+
+            this.positions[i] = p_pos;
+            this.powers[i] = packOrientationAndPower(p_orientation, p_power);
+            this.flags[i] = 0;
+            this.blockSignals[i] = -1;
+            this.incomingStart[i] = -1;
+            this.outgoingStart[i] = -1;
+            this.nodeIndex.put(p_pos, i);
+            return i;
+        }
+    }
+
+    private BlockState getCachedBlockState(Level p_level, long p_pos) {
+        BlockState blockstate = this.blockStates.get(p_pos);
+        if (blockstate == null) {
+            blockstate = p_level.getBlockState(this.cursor.set(p_pos));
+            this.blockStates.put(p_pos, blockstate);
+        }
+
+        return blockstate;
+    }
+
+    private void addEdge(Level p_level, BlockPos p_pos, int p_orientationIndex) {
+        BlockState blockstate = this.getCachedBlockState(p_level, p_pos.asLong());
+        if (blockstate.is(this.wireBlock)) {
+            this.edgePositions.add(p_pos.asLong());
+            this.edgeData.add(p_orientationIndex << 4 | blockstate.getValue(RedStoneWireBlock.POWER));
+        }
+    }
+
+    private int getBlockSignal(Level p_level, int p_node) {
+        int i = this.blockSignals[p_node];
+        if (i == -1) {
+            i = this.getBlockSignal(p_level, BlockPos.of(this.positions[p_node]));
+            this.blockSignals[p_node] = i;
+        }
+
+        return i;
+    }
+
+    private int getIncomingWireSignal(Level p_level, int p_node) {
+        if (this.incomingStart[p_node] == -1) {
+            this.incomingStart[p_node] = this.edgePositions.size();
+            BlockPos blockpos = BlockPos.of(this.positions[p_node]);
+            this.compileIncomingEdges(p_level, blockpos, p_level.getRedstoneWireGraph().getTopology(p_level, blockpos));
+            this.incomingEnd[p_node] = this.edgePositions.size();
+        }
+
+        int i = 0;
+
+        for (int j = this.incomingStart[p_node]; j < this.incomingEnd[p_node]; j++) {
+            i = Math.max(i, this.getWireSignal(j));
+        }
+
+        return Math.max(0, i - 1);
+    }
+
+    private void compileIncomingEdges(Level p_level, BlockPos p_pos, int p_topology) {
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            BlockPos blockpos = p_pos.relative(direction);
+            if (RedstoneWireGraph.hasWire(p_topology, direction)) {
+                this.addEdge(p_level, blockpos, 0);
+            }
+
+            boolean flag = RedstoneWireGraph.isConductor(p_topology, direction);
+            if (flag && !RedstoneWireGraph.isConductorAbove(p_topology)) {
+                if (RedstoneWireGraph.hasWireAbove(p_topology, direction)) {
+                    this.addEdge(p_level, blockpos.above(), 0);
+                }
+            } else if (!flag && RedstoneWireGraph.hasWireBelow(p_topology, direction)) {
+                this.addEdge(p_level, blockpos.below(), 0);
+            }
+        }
+    }
+
+    private void propagateChangeToNeighbors(Level p_level, int p_node, int p_power, boolean p_turningOff) {
+        if (this.outgoingStart[p_node] == -1) {
+            this.outgoingStart[p_node] = this.edgePositions.size();
+            BlockPos blockpos = BlockPos.of(this.positions[p_node]);
+            this.compileOutgoingEdges(
+                p_level, blockpos, unpackOrientation(this.powers[p_node]), p_level.getRedstoneWireGraph().getTopology(p_level, blockpos)
+            );
+            this.outgoingEnd[p_node] = this.edgePositions.size();
+        }
+
+        this.propagateChangeToNeighbors(this.outgoingStart[p_node], this.outgoingEnd[p_node], p_power, p_turningOff);
+    }
+
+    private void compileOutgoingEdges(Level p_level, BlockPos p_pos, Orientation p_orientation, int p_topology) {
+        for (Direction direction : p_orientation.getHorizontalDirections()) {
+            if (RedstoneWireGraph.hasWire(p_topology, direction)) {
+                this.addEdge(p_level, p_pos.relative(direction), p_orientation.withFront(direction).getIndex());
+            }
+        }
+
+        for (Direction direction2 : p_orientation.getVerticalDirections()) {
+            BlockPos blockpos = p_pos.relative(direction2);
+
+            for (Direction direction1 : p_orientation.getHorizontalDirections()) {
+                if (direction2 == Direction.UP && !RedstoneWireGraph.isConductorAbove(p_topology)) {
+                    if (RedstoneWireGraph.hasWireAbove(p_topology, direction1)) {
+                        this.addEdge(p_level, blockpos.relative(direction1), p_orientation.withFront(direction1).getIndex());
+                    }
+                } else if (direction2 == Direction.DOWN
+                    && !RedstoneWireGraph.isConductor(p_topology, direction1)
+                    && RedstoneWireGraph.hasWireBelow(p_topology, direction1)) {
+                    this.addEdge(p_level, blockpos.relative(direction1), p_orientation.withFront(direction1).getIndex());
+                }
+            }
+        }
+    }
+
+    private void propagateChangeToNeighbors(int p_start, int p_end, int p_power, boolean p_turningOff) {
+        for (int i = p_start; i < p_end; i++) {
+            long j = this.edgePositions.getLong(i);
+            int k = this.nodeIndex.get(j);
+            int l = this.getWireSignal(i);
+            if (l < p_power - 1 && (k == -1 || (this.flags[k] & QUEUED_TO_TURN_ON) == 0)) {
+                k = this.setPower(j, l, unpackOrientation(this.edgeData.getInt(i)));
+                this.enqueue(this.wiresToTurnOn, k, QUEUED_TO_TURN_ON);
+            }
+
+            if (p_turningOff && l > p_power && (k == -1 || (this.flags[k] & QUEUED_TO_TURN_OFF) == 0)) {
+                k = this.setPower(j, l, unpackOrientation(this.edgeData.getInt(i)));
+                this.enqueue(this.wiresToTurnOff, k, QUEUED_TO_TURN_OFF);
+            }
+        }
+    }
+
+    private int getWireSignal(int p_edge) {
+        int i = this.nodeIndex.get(this.edgePositions.getLong(p_edge));
+        return i != -1 ? unpackPower(this.powers[i]) : unpackPower(this.edgeData.getInt(p_edge));
+    }
+
+    @Override
+    protected int getWireSignal(BlockPos p_pos, BlockState p_state) {
+        int i = this.nodeIndex.get(p_pos.asLong());
+        return i != -1 ? unpackPower(this.powers[i]) : super.getWireSignal(p_pos, p_state);
+    }
+}
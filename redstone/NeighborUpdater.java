@@ -12,6 +12,7 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
 public interface NeighborUpdater {
@@ -43,6 +44,13 @@ public interface NeighborUpdater {
 
     static void executeUpdate(Level p_230764_, BlockState p_230765_, BlockPos p_230766_, Block p_230767_, @Nullable Orientation p_364742_, boolean p_230769_) {
         try {
+            if (p_230765_.hasBlockEntity()) {
+                BlockEntity blockentity = p_230764_.getBlockEntity(p_230766_);
+                if (blockentity != null) {
+                    blockentity.wakeUp();
+                }
+            }
+
             p_230765_.handleNeighborChanged(p_230764_, p_230766_, p_230767_, p_364742_, p_230769_);
         } catch (Throwable throwable) {
             CrashReport crashreport = CrashReport.forThrowable(throwable, "Exception while updating neighbours");
@@ -0,0 +1,286 @@
+package net.minecraft.world.level.redstone;
+
+import com.mojang.logging.LogUtils;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.flag.FeatureFlags;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import org.slf4j.Logger;
+
+public class PackedNeighborUpdater implements NeighborUpdater {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte SIMPLE = 0;
+    private static final byte FULL = 1;
+    private static final byte SHAPE = 2;
+    private static final byte MULTI = 3;
+    private static final byte NONE = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private final Level level;
+    private final int maxChainedNeighborUpdates;
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private long[] neighborPositions = new long[INITIAL_CAPACITY];
+    private Block[] blocks = new Block[INITIAL_CAPACITY];
+    private BlockState[] states = new BlockState[INITIAL_CAPACITY];
+    private byte[] orientations = new byte[INITIAL_CAPACITY];
+    private byte[] directions = new byte[INITIAL_CAPACITY];
+    private byte[] progress = new byte[INITIAL_CAPACITY];
+    private int[] flags = new int[INITIAL_CAPACITY];
+    private int[] limits = new int[INITIAL_CAPACITY];
+    private int stackSize;
+    private int size;
+    private int count = 0;
+
+    public PackedNeighborUpdater(Level p_level, int p_maxChainedNeighborUpdates) {
+        this.level = p_level;
+        this.maxChainedNeighborUpdates = p_maxChainedNeighborUpdates;
+    }
+
+    @Override
+    public void shapeUpdate(Direction p_direction, BlockState p_neighborState, BlockPos p_pos, BlockPos p_neighborPos, int p_updateFlags, int p_updateLimit) {
+        int i = this.add(p_pos, SHAPE);
+        if (i != -1) {
+            this.neighborPositions[i] = p_neighborPos.asLong();
+            this.states[i] = p_neighborState;
+            this.directions[i] = (byte)p_direction.ordinal();
+            this.flags[i] = p_updateFlags;
+            this.limits[i] = p_updateLimit;
+        }
+
+        this.runIfIdle();
+    }
+
+    @Override
+    public void neighborChanged(BlockPos p_pos, Block p_block, @Nullable Orientation p_orientation) {
+        int i = this.add(p_pos, SIMPLE);
+        if (i != -1) {
+            this.blocks[i] = p_block;
+            this.orientations[i] = packOrientation(p_orientation);
+        }
+
+        this.runIfIdle();
+    }
+
+    @Override
+    public void neighborChanged(BlockState p_state, BlockPos p_pos, Block p_block, @Nullable Orientation p_orientation, boolean p_movedByPiston) {
+        int i = this.add(p_pos, FULL);
+        if (i != -1) {
+            this.states[i] = p_state;
+            this.blocks[i] = p_block;
+            this.orientations[i] = packOrientation(p_orientation);
+            this.flags[i] = p_movedByPiston ? 1 : 0;
+        }
+
+        this.runIfIdle();
+    }
+
+    @Override
+    public void updateNeighborsAtExceptFromFacing(BlockPos p_pos, Block p_block, @Nullable Direction p_skipDirection, @Nullable Orientation p_orientation) {
+        int i = this.add(p_pos, MULTI);
+        if (i != -1) {
+            this.blocks[i] = p_block;
+            this.orientations[i] = packOrientation(p_orientation);
+            this.directions[i] = p_skipDirection == null ? NONE : (byte)p_skipDirection.ordinal();
+            this.progress[i] = (byte)(NeighborUpdater.UPDATE_ORDER[0] == p_skipDirection ? 1 : 0);
+        }
+
+        this.runIfIdle();
+    }
+
+    private int add(BlockPos p_pos, byte p_type) {
+        boolean flag = this.maxChainedNeighborUpdates >= 0 && this.count >= this.maxChainedNeighborUpdates;
+        this.count++;
+        if (flag) {
+            if (this.count - 1 == this.maxChainedNeighborUpdates) {
+                LOGGER.error("Too many chained neighbor updates. Skipping the rest. First skipped position: " + p_pos.toShortString());
+            }
+
+            return -1;
+        } else {
+            if (this.size == this.types.length) {
+                this.grow();
+            }
+
+            int i = this.size++;
+            this.types[i] = p_type;
+            this.positions[i] = p_pos.asLong();
+            return i;
+        }
+    }
+
+    private void runIfIdle() {
+        if (this.count == 1) {
+            this.runUpdates();
+        }
+    }
+
+    private void runUpdates() {
+        try {
+            while (this.size > 0) {
+                this.pushAddedThisLayer();
+                int i = this.stackSize - 1;
+
+                while (this.size == this.stackSize) {
+                    if (!this.runNext(i)) {
+                        this.remove(i);
+                        break;
+                    }
+                }
+            }
+        } finally {
+            Arrays.fill(this.blocks, 0, this.size, null);
+            Arrays.fill(this.states, 0, this.size, null);
+            this.stackSize = 0;
+            this.size = 0;
+            this.count = 0;
+        }
+    }
+
+    private void pushAddedThisLayer() {
+        int i = this.stackSize;
+
+        for (int j = this.size - 1; i < j; j--) {
+            this.swap(i++, j);
+        }
+
+        this.stackSize = this.size;
+    }
+
+    private void remove(int p_index) {
+        for (int i = p_index + 1; i < this.size; i++) {
+            this.copy(i, i - 1);
+        }
+
+        this.size--;
+        this.stackSize--;
+        this.blocks[this.size] = null;
+        this.states[this.size] = null;
+    }
+
+    private boolean runNext(int p_index) {
+        switch (this.types[p_index]) {
+            case SIMPLE: {
+                BlockPos blockpos = BlockPos.of(this.positions[p_index]);
+                NeighborUpdater.executeUpdate(
+                    this.level, this.level.getBlockState(blockpos), blockpos, this.blocks[p_index], unpackOrientation(this.orientations[p_index]), false
+                );
+                return false;
+            }
+            case FULL:
+                NeighborUpdater.executeUpdate(
+                    this.level,
+                    this.states[p_index],
+                    BlockPos.of(this.positions[p_index]),
+                    this.blocks[p_index],
+                    unpackOrientation(this.orientations[p_index]),
+                    this.flags[p_index] != 0
+                );
+                return false;
+            case SHAPE:
+                NeighborUpdater.executeShapeUpdate(
+                    this.level,
+                    DIRECTIONS[this.directions[p_index]],
+                    BlockPos.of(this.positions[p_index]),
+                    BlockPos.of(this.neighborPositions[p_index]),
+                    this.states[p_index],
+                    this.flags[p_index],
+                    this.limits[p_index]
+                );
+                return false;
+            default:
+                return this.runNextMulti(p_index);
+        }
+    }
+
+    private boolean runNextMulti(int p_index) {
+        Direction direction = this.directions[p_index] == NONE ? null : DIRECTIONS[this.directions[p_index]];
+        int i = this.progress[p_index];
+        Direction direction1 = NeighborUpdater.UPDATE_ORDER[i++];
+        if (i < NeighborUpdater.UPDATE_ORDER.length && NeighborUpdater.UPDATE_ORDER[i] == direction) {
+            i++;
+        }
+
+        this.progress[p_index] = (byte)i;
+        BlockPos blockpos = BlockPos.of(this.positions[p_index]).relative(direction1);
+        BlockState blockstate = this.level.getBlockState(blockpos);
+        Orientation orientation = null;
+        if (this.level.enabledFeatures().contains(FeatureFlags.REDSTONE_EXPERIMENTS)) {
+            Orientation orientation1 = unpackOrientation(this.orientations[p_index]);
+            if (orientation1 == null) {
+                orientation1 = ExperimentalRedstoneUtils.initialOrientation(this.level, direction == null ? null : direction.getOpposite(), null);
+                this.orientations[p_index] = packOrientation(orientation1);
+            }
+
+            orientation = orientation1.withFront(direction1);
+        }
+
+        Block block = this.blocks[p_index];
+        NeighborUpdater.executeUpdate(this.level, blockstate, blockpos, block, orientation, false);
+        return i < NeighborUpdater.UPDATE_ORDER.length;
+    }
+
+    private void swap(int p_first, int p_second) {
+        byte b0 = this.types[p_first];
+        long i = this.positions[p_first];
+        long j = this.neighborPositions[p_first];
+        Block block = this.blocks[p_first];
+        BlockState blockstate = this.states[p_first];
+        byte b1 = this.orientations[p_first];
+        byte b2 = this.directions[p_first];
+        byte b3 = this.progress[p_first];
+        int k = this.flags[p_first];
+        int l = this.limits[p_first];
+        this.copy(p_second, p_first);
+        this.types[p_second] = b0;
+        this.positions[p_second] = i;
+        this.neighborPositions[p_second] = j;
+        this.blocks[p_second] = block;
+        this.states[p_second] = blockstate;
+        this.orientations[p_second] = b1;
+        this.directions[p_second] = b2;
+        this.progress[p_second] = b3;
+        this.flags[p_second] = k;
+        this.limits[p_second] = l;
+    }
+
+    private void copy(int p_from, int p_to) {
+        this.types[p_to] = this.types[p_from];
+        this.positions[p_to] = this.positions[p_from];
+        this.neighborPositions[p_to] = this.neighborPositions[p_from];
+        this.blocks[p_to] = this.blocks[p_from];
+        this.states[p_to] = this.states[p_from];
+        this.orientations[p_to] = this.orientations[p_from];
+        this.directions[p_to] = this.directions[p_from];
+        this.progress[p_to] = this.progress[p_from];
+        this.flags[p_to] = this.flags[p_from];
+        this.limits[p_to] = this.limits[p_from];
+    }
+
+    private void grow() {
+        int i = this.types.length * 2;
+        this.types = Arrays.copyOf(this.types, i);
+        this.positions = Arrays.copyOf(this.positions, i);
+        this.neighborPositions = Arrays.copyOf(this.neighborPositions, i);
+        this.blocks = Arrays.copyOf(this.blocks, i);
+        this.states = Arrays.copyOf(this.states, i);
+        this.orientations = Arrays.copyOf(this.orientations, i);
+        this.directions = Arrays.copyOf(this.directions, i);
+        this.progress = Arrays.copyOf(this.progress, i);
+        this.flags = Arrays.copyOf(this.flags, i);
+        this.limits = Arrays.copyOf(this.limits, i);
+    }
+
+    private static byte packOrientation(@Nullable Orientation p_orientation) {
+        return p_orientation == null ? NONE : (byte)p_orientation.getIndex();
+    }
+
+    @Nullable
+    private static Orientation unpackOrientation(byte p_orientation) {
+        return p_orientation == NONE ? null : Orientation.fromIndex(p_orientation);
+    }
+}
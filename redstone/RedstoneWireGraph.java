@@ -0,0 +1,147 @@
+package net.minecraft.world.level.redstone;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+public class RedstoneWireGraph {
+    private static final int WIRE = 1;
+    private static final int WIRE_ABOVE = 2;
+    private static final int WIRE_BELOW = 4;
+    private static final int CONDUCTOR = 8;
+    private static final int CONDUCTOR_ABOVE = 1 << 16;
+    private final Long2IntOpenHashMap topology = new Long2IntOpenHashMap();
+    private final Long2ObjectMap<LongSet> wiresByChunk = new Long2ObjectOpenHashMap<>();
+
+    public RedstoneWireGraph() {
+        this.topology.defaultReturnValue(-1);
+    }
+
+    int getTopology(Level p_level, BlockPos p_pos) {
+        long i = p_pos.asLong();
+        int j = this.topology.get(i);
+        if (j == -1) {
+            j = compileTopology(p_level, p_pos);
+            this.topology.put(i, j);
+            this.wiresByChunk.computeIfAbsent(ChunkPos.asLong(p_pos), p_chunk -> new LongOpenHashSet()).add(i);
+        }
+
+        return j;
+    }
+
+    static int compileTopology(Level p_level, BlockPos p_pos) {
+        int i = 0;
+
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            BlockPos blockpos = p_pos.relative(direction);
+            BlockState blockstate = p_level.getBlockState(blockpos);
+            int j = 0;
+            if (isWire(blockstate)) {
+                j |= WIRE;
+            }
+
+            if (isWire(p_level.getBlockState(blockpos.above()))) {
+                j |= WIRE_ABOVE;
+            }
+
+            if (isWire(p_level.getBlockState(blockpos.below()))) {
+                j |= WIRE_BELOW;
+            }
+
+            if (blockstate.isRedstoneConductor(p_level, blockpos)) {
+                j |= CONDUCTOR;
+            }
+
+            i |= j << direction.get2DDataValue() * 4;
+        }
+
+        BlockPos blockpos1 = p_pos.above();
+        if (p_level.getBlockState(blockpos1).isRedstoneConductor(p_level, blockpos1)) {
+            i |= CONDUCTOR_ABOVE;
+        }
+
+        return i;
+    }
+
+    static boolean hasWire(int p_topology, Direction p_direction) {
+        return (p_topology >> p_direction.get2DDataValue() * 4 & WIRE) != 0;
+    }
+
+    static boolean hasWireAbove(int p_topology, Direction p_direction) {
+        return (p_topology >> p_direction.get2DDataValue() * 4 & WIRE_ABOVE) != 0;
+    }
+
+    static boolean hasWireBelow(int p_topology, Direction p_direction) {
+        return (p_topology >> p_direction.get2DDataValue() * 4 & WIRE_BELOW) != 0;
+    }
+
+    static boolean isConductor(int p_topology, Direction p_direction) {
+        return (p_topology >> p_direction.get2DDataValue() * 4 & CONDUCTOR) != 0;
+    }
+
+    static boolean isConductorAbove(int p_topology) {
+        return (p_topology & CONDUCTOR_ABOVE) != 0;
+    }
+
+    private static boolean isWire(BlockState p_state) {
+        return p_state.is(Blocks.REDSTONE_WIRE);
+    }
+
+    public void onBlockChanged(Level p_level, BlockPos p_pos, BlockState p_oldState, BlockState p_newState) {
+        if (!this.topology.isEmpty()
+            && (
+                isWire(p_oldState) != isWire(p_newState)
+                    || p_oldState.isRedstoneConductor(p_level, p_pos) != p_newState.isRedstoneConductor(p_level, p_pos)
+            )) {
+            this.remove(p_pos);
+            this.remove(p_pos.below());
+
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                BlockPos blockpos = p_pos.relative(direction.getOpposite());
+                this.remove(blockpos);
+                this.remove(blockpos.above());
+                this.remove(blockpos.below());
+            }
+        }
+    }
+
+    public void invalidateChunk(int p_chunkX, int p_chunkZ) {
+        if (!this.topology.isEmpty()) {
+            for (int i = -1; i <= 1; i++) {
+                for (int j = -1; j <= 1; j++) {
+                    LongSet longset = this.wiresByChunk.remove(ChunkPos.asLong(p_chunkX + i, p_chunkZ + j));
+                    if (longset != null) {
+                        LongIterator longiterator = longset.iterator();
+
+                        while (longiterator.hasNext()) {
+                            this.topology.remove(longiterator.nextLong());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void remove(BlockPos p_pos) {
+        long i = p_pos.asLong();
+        if (this.topology.remove(i) != -1) {
+            long j = ChunkPos.asLong(p_pos);
+            LongSet longset = this.wiresByChunk.get(j);
+            if (longset != null) {
+                longset.remove(i);
+                if (longset.isEmpty()) {
+                    this.wiresByChunk.remove(j);
+                }
+            }
+        }
+    }
+}
@@ -214,16 +214,20 @@ public class MapItemSavedData extends SavedData {
 
         Predicate<ItemStack> predicate = mapMatcher(p_77920_);
         if (!p_77919_.getInventory().contains(predicate)) {
-            this.removeDecoration(p_77919_.getName().getString());
+            this.removeDecoration(this.carriedByPlayers.get(p_77919_).decorationKey);
         }
 
+        boolean flag = p_77920_.isFramed();
+        long j = p_77919_.level().getGameTime();
+
         for (int i = 0; i < this.carriedBy.size(); i++) {
             MapItemSavedData.HoldingPlayer mapitemsaveddata$holdingplayer1 = this.carriedBy.get(i);
             Player player = mapitemsaveddata$holdingplayer1.player;
-            String s = player.getName().getString();
-            if (!player.isRemoved() && (player.getInventory().contains(predicate) || p_77920_.isFramed())) {
-                if (!p_77920_.isFramed() && player.level().dimension() == this.dimension && this.trackingPosition) {
+            String s = mapitemsaveddata$holdingplayer1.decorationKey;
+            if (!player.isRemoved() && (flag || player.getInventory().contains(predicate))) {
+                if (!flag && player.level().dimension() == this.dimension && this.trackingPosition && mapitemsaveddata$holdingplayer1.hasMovedSinceDecorated()) {
                     this.addDecoration(MapDecorationTypes.PLAYER, player.level(), s, player.getX(), player.getZ(), (double)player.getYRot(), null);
+                    mapitemsaveddata$holdingplayer1.onDecorated();
                 }
             } else {
                 this.carriedByPlayers.remove(player);
@@ -231,7 +235,7 @@ public class MapItemSavedData extends SavedData {
                 this.removeDecoration(s);
             }
 
-            if (!player.equals(p_77919_) && hasMapInvisibilityItemEquipped(player)) {
+            if (!player.equals(p_77919_) && mapitemsaveddata$holdingplayer1.hasMapInvisibilityItemEquipped(j)) {
                 this.removeDecoration(s);
             }
         }
@@ -258,7 +262,7 @@ public class MapItemSavedData extends SavedData {
         }
 
         MapDecorations mapdecorations = p_77920_.getOrDefault(DataComponents.MAP_DECORATIONS, MapDecorations.EMPTY);
-        if (!this.decorations.keySet().containsAll(mapdecorations.decorations().keySet())) {
+        if (!mapdecorations.decorations().isEmpty() && !this.decorations.keySet().containsAll(mapdecorations.decorations().keySet())) {
             mapdecorations.decorations()
                 .forEach(
                     (p_375362_, p_375363_) -> {
@@ -292,11 +296,13 @@ public class MapItemSavedData extends SavedData {
 
     private void removeDecoration(String p_164800_) {
         MapDecoration mapdecoration = this.decorations.remove(p_164800_);
-        if (mapdecoration != null && mapdecoration.type().value().trackCount()) {
-            this.trackedDecorationCount--;
-        }
+        if (mapdecoration != null) {
+            if (mapdecoration.type().value().trackCount()) {
+                this.trackedDecorationCount--;
+            }
 
-        this.setDecorationsDirty();
+            this.setDecorationsDirty();
+        }
     }
 
     public static void addTargetDecoration(ItemStack p_77926_, BlockPos p_77927_, String p_77928_, Holder<MapDecorationType> p_335418_) {
@@ -543,6 +549,7 @@ public class MapItemSavedData extends SavedData {
 
     public class HoldingPlayer {
         public final Player player;
+        final String decorationKey;
         private boolean dirtyData = true;
         private int minDirtyX;
         private int minDirtyY;
@@ -551,9 +558,38 @@ public class MapItemSavedData extends SavedData {
         private boolean dirtyDecorations = true;
         private int tick;
         public int step;
+        private long invisibilityCheckedAt = Long.MIN_VALUE;
+        private boolean invisible;
+        private double decoratedX = Double.NaN;
+        private double decoratedZ;
+        private float decoratedYRot;
 
         HoldingPlayer(final Player p_77970_) {
             this.player = p_77970_;
+            this.decorationKey = p_77970_.getName().getString();
+        }
+
+        boolean hasMapInvisibilityItemEquipped(long p_gameTime) {
+            if (this.invisibilityCheckedAt != p_gameTime) {
+                this.invisibilityCheckedAt = p_gameTime;
+                this.invisible = MapItemSavedData.hasMapInvisibilityItemEquipped(this.player);
+            }
+
+            return this.invisible;
+        }
+
+        boolean hasMovedSinceDecorated() {
+            return MapItemSavedData.this.dimension == Level.NETHER
+                || this.player.getX() != this.decoratedX
+                || this.player.getZ() != this.decoratedZ
+                || this.player.getYRot() != this.decoratedYRot
+                || !MapItemSavedData.this.decorations.containsKey(this.decorationKey);
+        }
+
+        void onDecorated() {
+            this.decoratedX = this.player.getX();
+            this.decoratedZ = this.player.getZ();
+            this.decoratedYRot = this.player.getYRot();
         }
 
         private MapItemSavedData.MapPatch createPatch() {
@@ -8,15 +8,20 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 import net.minecraft.SharedConstants;
@@ -34,22 +39,87 @@ import org.slf4j.Logger;
 
 public class DimensionDataStorage implements AutoCloseable {
     private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String PAGED_PREFIX = "map_";
+    private static final String PREFETCH_MANIFEST = "prefetch_manifest.txt";
+    private static final int MAX_PREFETCH_ENTRIES = 1024;
+    private static final Map<String, DataFixTypes> DATA_FIX_TYPES_BY_NAME = Util.make(new HashMap<>(), p_map -> {
+        for (DataFixTypes datafixtypes : DataFixTypes.values()) {
+            p_map.put(datafixtypes.name(), datafixtypes);
+        }
+    });
     private final Map<String, Optional<SavedData>> cache = new HashMap<>();
+    private final Set<String> pendingMigrations = ConcurrentHashMap.newKeySet();
+    private final Map<String, DimensionDataStorage.PendingRead> pendingReads = new HashMap<>();
+    private final Map<String, DataFixTypes> accessedTypes = new LinkedHashMap<>();
     private final DataFixer fixerUpper;
     private final HolderLookup.Provider registries;
     private final Path dataFolder;
+    private final PagedSavedDataStore pagedStore;
     private CompletableFuture<?> pendingWriteFuture = CompletableFuture.completedFuture(null);
 
     public DimensionDataStorage(Path p_364133_, DataFixer p_78150_, HolderLookup.Provider p_336063_) {
         this.fixerUpper = p_78150_;
         this.dataFolder = p_364133_;
         this.registries = p_336063_;
+        this.pagedStore = new PagedSavedDataStore(p_364133_.resolve("maps.pages"), p_364133_.resolve("maps.index.dat"));
+        this.startPrefetch();
+    }
+
+    private static boolean isPaged(String p_id) {
+        return p_id.startsWith(PAGED_PREFIX);
     }
 
     private Path getDataFile(String p_78157_) {
         return this.dataFolder.resolve(p_78157_ + ".dat");
     }
 
+    private void startPrefetch() {
+        Path path = this.dataFolder.resolve(PREFETCH_MANIFEST);
+        if (Files.exists(path)) {
+            try {
+                for (String s : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    int i = s.indexOf(' ');
+                    if (i > 0) {
+                        String s1 = s.substring(0, i);
+                        DataFixTypes datafixtypes = DATA_FIX_TYPES_BY_NAME.get(s.substring(i + 1));
+                        if (datafixtypes != null && !this.pendingReads.containsKey(s1)) {
+                            this.pendingReads.put(s1, new DimensionDataStorage.PendingRead(datafixtypes, this.readTagAsync(s1, datafixtypes)));
+                        }
+                    }
+                }
+            } catch (IOException ioexception) {
+                LOGGER.warn("Failed to read saved data prefetch manifest", ioexception);
+            }
+        }
+    }
+
+    private void writePrefetchManifest() {
+        List<String> list = new ArrayList<>();
+        this.accessedTypes.forEach((p_id, p_type) -> {
+            Optional<SavedData> optional = this.cache.get(p_id);
+            if (optional != null && optional.isPresent() && list.size() < MAX_PREFETCH_ENTRIES) {
+                list.add(p_id + " " + p_type.name());
+            }
+        });
+
+        try {
+            Files.write(this.dataFolder.resolve(PREFETCH_MANIFEST), list, StandardCharsets.UTF_8);
+        } catch (IOException ioexception) {
+            LOGGER.warn("Failed to write saved data prefetch manifest", ioexception);
+        }
+    }
+
+    private CompletableFuture<Optional<CompoundTag>> readTagAsync(String p_id, DataFixTypes p_type) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return Optional.ofNullable(this.readTag(p_id, p_type));
+            } catch (Exception exception) {
+                LOGGER.error("Error loading saved data: {}", p_id, exception);
+                return Optional.empty();
+            }
+        }, Util.ioPool());
+    }
+
     public <T extends SavedData> T computeIfAbsent(SavedData.Factory<T> p_297495_, String p_164864_) {
         T t = this.get(p_297495_, p_164864_);
         if (t != null) {
@@ -65,30 +135,102 @@ public class DimensionDataStorage implements AutoCloseable {
     public <T extends SavedData> T get(SavedData.Factory<T> p_297465_, String p_164860_) {
         Optional<SavedData> optional = this.cache.get(p_164860_);
         if (optional == null) {
-            optional = Optional.ofNullable(this.readSavedData(p_297465_.deserializer(), p_297465_.type(), p_164860_));
+            this.accessedTypes.put(p_164860_, p_297465_.type());
+            DimensionDataStorage.PendingRead dimensiondatastorage$pendingread = this.pendingReads.remove(p_164860_);
+            if (dimensiondatastorage$pendingread != null && dimensiondatastorage$pendingread.type == p_297465_.type()) {
+                optional = Optional.ofNullable(
+                    this.deserialize(p_297465_.deserializer(), p_164860_, dimensiondatastorage$pendingread.tag.join().orElse(null))
+                );
+            } else {
+                optional = Optional.ofNullable(this.readSavedData(p_297465_.deserializer(), p_297465_.type(), p_164860_));
+            }
+
             this.cache.put(p_164860_, optional);
         }
 
         return (T)optional.orElse(null);
     }
 
+    public <T extends SavedData> CompletableFuture<Optional<T>> getAsync(SavedData.Factory<T> p_factory, String p_id, Executor p_mainThreadExecutor) {
+        Optional<SavedData> optional = this.cache.get(p_id);
+        if (optional != null) {
+            return CompletableFuture.completedFuture((Optional<T>)optional);
+        } else {
+            this.accessedTypes.put(p_id, p_factory.type());
+            DimensionDataStorage.PendingRead dimensiondatastorage$pendingread = this.pendingReads.get(p_id);
+            if (dimensiondatastorage$pendingread == null || dimensiondatastorage$pendingread.type != p_factory.type()) {
+                dimensiondatastorage$pendingread = new DimensionDataStorage.PendingRead(p_factory.type(), this.readTagAsync(p_id, p_factory.type()));
+                this.pendingReads.put(p_id, dimensiondatastorage$pendingread);
+            }
+
+            DimensionDataStorage.PendingRead dimensiondatastorage$pendingread1 = dimensiondatastorage$pendingread;
+            return dimensiondatastorage$pendingread1.tag.thenApplyAsync(p_tag -> {
+                Optional<SavedData> optional1 = this.cache.get(p_id);
+                if (optional1 == null) {
+                    this.pendingReads.remove(p_id, dimensiondatastorage$pendingread1);
+                    optional1 = Optional.ofNullable(this.deserialize(p_factory.deserializer(), p_id, p_tag.orElse(null)));
+                    this.cache.put(p_id, optional1);
+                }
+
+                return (Optional<T>)optional1;
+            }, p_mainThreadExecutor);
+        }
+    }
+
     @Nullable
     private <T extends SavedData> T readSavedData(BiFunction<CompoundTag, HolderLookup.Provider, T> p_335409_, DataFixTypes p_300231_, String p_164870_) {
         try {
-            Path path = this.getDataFile(p_164870_);
-            if (Files.exists(path)) {
-                CompoundTag compoundtag = this.readTagFromDisk(p_164870_, p_300231_, SharedConstants.getCurrentVersion().getDataVersion().getVersion());
-                return p_335409_.apply(compoundtag.getCompound("data"), this.registries);
-            }
+            return this.deserialize(p_335409_, p_164870_, this.readTag(p_164870_, p_300231_));
         } catch (Exception exception) {
             LOGGER.error("Error loading saved data: {}", p_164870_, exception);
+            return null;
+        }
+    }
+
+    @Nullable
+    private <T extends SavedData> T deserialize(BiFunction<CompoundTag, HolderLookup.Provider, T> p_deserializer, String p_id, @Nullable CompoundTag p_tag) {
+        if (p_tag == null) {
+            return null;
+        } else {
+            try {
+                T t = p_deserializer.apply(p_tag.getCompound("data"), this.registries);
+                if (this.pendingMigrations.contains(p_id)) {
+                    t.setDirty();
+                }
+
+                return t;
+            } catch (Exception exception) {
+                LOGGER.error("Error loading saved data: {}", p_id, exception);
+                return null;
+            }
         }
+    }
+
+    @Nullable
+    private CompoundTag readTag(String p_id, DataFixTypes p_type) throws IOException {
+        int i = SharedConstants.getCurrentVersion().getDataVersion().getVersion();
+        if (isPaged(p_id)) {
+            CompoundTag compoundtag = this.pagedStore.read(p_id);
+            if (compoundtag != null) {
+                return this.fixTag(compoundtag, p_type, i);
+            }
+        }
+
+        if (Files.exists(this.getDataFile(p_id))) {
+            CompoundTag compoundtag1 = this.readTagFromDisk(p_id, p_type, i);
+            if (isPaged(p_id)) {
+                this.pendingMigrations.add(p_id);
+            }
 
-        return null;
+            return compoundtag1;
+        } else {
+            return null;
+        }
     }
 
     public void set(String p_164856_, SavedData p_164857_) {
         this.cache.put(p_164856_, Optional.of(p_164857_));
+        this.pendingReads.remove(p_164856_);
         p_164857_.setDirty();
     }
 
@@ -107,13 +249,17 @@ public class DimensionDataStorage implements AutoCloseable {
                 }
             }
 
-            int i = NbtUtils.getDataVersion(compoundtag, 1343);
-            compoundtag1 = p_301060_.update(this.fixerUpper, compoundtag, i, p_78160_);
+            compoundtag1 = this.fixTag(compoundtag, p_301060_, p_78160_);
         }
 
         return compoundtag1;
     }
 
+    private CompoundTag fixTag(CompoundTag p_tag, DataFixTypes p_type, int p_version) {
+        int i = NbtUtils.getDataVersion(p_tag, 1343);
+        return p_type.update(this.fixerUpper, p_tag, i, p_version);
+    }
+
     private boolean isGzip(PushbackInputStream p_78155_) throws IOException {
         byte[] abyte = new byte[2];
         boolean flag = false;
@@ -133,9 +279,22 @@ public class DimensionDataStorage implements AutoCloseable {
     }
 
     public CompletableFuture<?> scheduleSave() {
+        Map<String, CompoundTag> map1 = this.collectDirtyPagedTagsToSave();
+        if (!map1.isEmpty()) {
+            List<Path> list2 = new ArrayList<>();
+
+            for (String s : map1.keySet()) {
+                if (this.pendingMigrations.remove(s)) {
+                    list2.add(this.getDataFile(s));
+                }
+            }
+
+            this.pendingWriteFuture = this.pendingWriteFuture.thenRunAsync(() -> this.tryWritePaged(map1, list2), Util.ioPool());
+        }
+
         Map<Path, CompoundTag> map = this.collectDirtyTagsToSave();
         if (map.isEmpty()) {
-            return CompletableFuture.completedFuture(null);
+            return map1.isEmpty() ? CompletableFuture.completedFuture(null) : this.pendingWriteFuture;
         } else {
             int i = Util.maxAllowedExecutorThreads();
             int j = map.size();
@@ -174,12 +333,42 @@ public class DimensionDataStorage implements AutoCloseable {
         Map<Path, CompoundTag> map = new Object2ObjectArrayMap<>();
         this.cache
             .forEach(
-                (p_360648_, p_360649_) -> p_360649_.filter(SavedData::isDirty)
-                        .ifPresent(p_360658_ -> map.put(this.getDataFile(p_360648_), p_360658_.save(this.registries)))
+                (p_360648_, p_360649_) -> {
+                    if (!isPaged(p_360648_)) {
+                        p_360649_.filter(SavedData::isDirty).ifPresent(p_360658_ -> map.put(this.getDataFile(p_360648_), p_360658_.save(this.registries)));
+                    }
+                }
             );
         return map;
     }
 
+    private Map<String, CompoundTag> collectDirtyPagedTagsToSave() {
+        Map<String, CompoundTag> map = new HashMap<>();
+        this.cache.forEach((p_id, p_data) -> {
+            if (isPaged(p_id)) {
+                p_data.filter(SavedData::isDirty).ifPresent(p_savedData -> map.put(p_id, p_savedData.save(this.registries)));
+            }
+        });
+        return map;
+    }
+
+    private void tryWritePaged(Map<String, CompoundTag> p_entries, List<Path> p_migratedFiles) {
+        try {
+            this.pagedStore.write(p_entries);
+        } catch (IOException ioexception) {
+            LOGGER.error("Could not save {} paged saved data entries", p_entries.size(), ioexception);
+            return;
+        }
+
+        for (Path path : p_migratedFiles) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ioexception1) {
+                LOGGER.warn("Could not remove migrated saved data file {}", path.getFileName(), ioexception1);
+            }
+        }
+    }
+
     private static void tryWrite(Path p_377750_, CompoundTag p_378799_) {
         try {
             NbtIo.writeCompressed(p_378799_, p_377750_);
@@ -195,5 +384,10 @@ public class DimensionDataStorage implements AutoCloseable {
     @Override
     public void close() {
         this.saveAndJoin();
+        this.writePrefetchManifest();
+        this.pagedStore.close();
+    }
+
+    static record PendingRead(DataFixTypes type, CompletableFuture<Optional<CompoundTag>> tag) {
     }
 }
\ No newline at end of file
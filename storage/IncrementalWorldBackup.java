@@ -0,0 +1,391 @@
+package net.minecraft.world.level.storage;
+
+import com.google.common.hash.Hashing;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nullable;
+import net.minecraft.Util;
+import org.slf4j.Logger;
+
+public class IncrementalWorldBackup {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int SECTOR_BYTES = 4096;
+    private static final int HEADER_BYTES = 8192;
+    private static final int CHUNKS_PER_REGION = 1024;
+    private static final String REGION_EXTENSION = ".mca";
+    private static final String MANIFEST_EXTENSION = ".txt";
+    private static final String FILE_ENTRY = "file";
+    private static final String REGION_ENTRY = "region";
+    private static final String CHUNK_ENTRY = "chunk";
+    private final Path objectsDirectory;
+    private final Path snapshotsDirectory;
+
+    public IncrementalWorldBackup(Path p_root) {
+        this.objectsDirectory = p_root.resolve("objects");
+        this.snapshotsDirectory = p_root.resolve("snapshots");
+    }
+
+    public long createSnapshot(Path p_levelDirectory, String p_name) throws IOException {
+        return this.createSnapshot(p_levelDirectory, p_name, IncrementalWorldBackup.FileAccess.DIRECT);
+    }
+
+    long createSnapshot(Path p_levelDirectory, String p_name, IncrementalWorldBackup.FileAccess p_access) throws IOException {
+        Files.createDirectories(this.objectsDirectory);
+        Files.createDirectories(this.snapshotsDirectory);
+        List<Path> list;
+
+        try (Stream<Path> stream = Files.walk(p_levelDirectory)) {
+            list = stream.filter(Files::isRegularFile).filter(p_path -> !p_path.endsWith("session.lock")).sorted().toList();
+        }
+
+        IncrementalWorldBackup.PreviousSnapshot incrementalworldbackup$previoussnapshot = this.readLatestSnapshot();
+        AtomicLong atomiclong = new AtomicLong();
+        List<CompletableFuture<List<String>>> list1 = new ArrayList<>(list.size());
+
+        for (Path path : list) {
+            String s = p_levelDirectory.relativize(path).toString().replace('\\', '/');
+            list1.add(p_access.read(path, () -> {
+                try {
+                    return readFile(path, s, incrementalworldbackup$previoussnapshot);
+                } catch (IOException ioexception) {
+                    throw new CompletionException(ioexception);
+                }
+            }).thenApplyAsync(p_copy -> {
+                try {
+                    return this.storeEntry(s, p_copy, incrementalworldbackup$previoussnapshot, atomiclong);
+                } catch (IOException ioexception) {
+                    throw new CompletionException(ioexception);
+                }
+            }, Util.ioPool()));
+        }
+
+        List<String> list2 = new ArrayList<>();
+
+        try {
+            for (CompletableFuture<List<String>> completablefuture : list1) {
+                list2.addAll(completablefuture.join());
+            }
+        } catch (CompletionException completionexception) {
+            if (completionexception.getCause() instanceof IOException ioexception) {
+                throw ioexception;
+            }
+
+            throw completionexception;
+        }
+
+        Path path1 = this.snapshotsDirectory.resolve(p_name + MANIFEST_EXTENSION);
+        Path path2 = this.snapshotsDirectory.resolve(p_name + MANIFEST_EXTENSION + ".tmp");
+        Files.write(path2, list2, StandardCharsets.UTF_8);
+        Files.move(path2, path1, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return atomiclong.get();
+    }
+
+    private static IncrementalWorldBackup.FileCopy readFile(Path p_path, String p_name, @Nullable IncrementalWorldBackup.PreviousSnapshot p_previous) throws IOException {
+        BasicFileAttributes basicfileattributes = Files.readAttributes(p_path, BasicFileAttributes.class);
+        List<String> list = p_previous == null ? null : p_previous.entries().get(p_name);
+        if (list != null && p_previous.isUnchanged(list.get(0), basicfileattributes)) {
+            return new IncrementalWorldBackup.FileCopy(basicfileattributes, null);
+        } else {
+            byte[] abyte = Files.readAllBytes(p_path);
+            BasicFileAttributes basicfileattributes1 = Files.readAttributes(p_path, BasicFileAttributes.class);
+            if (basicfileattributes1.size() == basicfileattributes.size()
+                && basicfileattributes1.lastModifiedTime().equals(basicfileattributes.lastModifiedTime())
+                && abyte.length == basicfileattributes.size()) {
+                return new IncrementalWorldBackup.FileCopy(basicfileattributes, abyte);
+            } else {
+                throw new IOException("File " + p_name + " changed while it was being backed up");
+            }
+        }
+    }
+
+    private List<String> storeEntry(
+        String p_name, IncrementalWorldBackup.FileCopy p_copy, @Nullable IncrementalWorldBackup.PreviousSnapshot p_previous, AtomicLong p_written
+    ) throws IOException {
+        List<String> list = p_previous == null ? null : p_previous.entries().get(p_name);
+        byte[] abyte = p_copy.data();
+        if (abyte == null) {
+            return list;
+        } else {
+            String s = "\t" + abyte.length + "\t" + p_copy.attributes().lastModifiedTime().toMillis();
+            return p_name.endsWith(REGION_EXTENSION) && abyte.length >= HEADER_BYTES
+                ? this.storeRegion(abyte, p_name, s, list, p_previous, p_written)
+                : List.of(FILE_ENTRY + "\t" + p_name + "\t" + this.storeObject(abyte, p_written) + s);
+        }
+    }
+
+    @Nullable
+    private IncrementalWorldBackup.PreviousSnapshot readLatestSnapshot() {
+        try {
+            List<String> list = this.listSnapshots();
+            if (list.isEmpty()) {
+                return null;
+            } else {
+                Path path = this.snapshotsDirectory.resolve(list.get(list.size() - 1) + MANIFEST_EXTENSION);
+                Map<String, List<String>> map = new HashMap<>();
+                List<String> list1 = null;
+
+                for (String s : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    String[] astring = s.split("\t");
+                    if (astring[0].equals(CHUNK_ENTRY)) {
+                        if (list1 != null) {
+                            list1.add(s);
+                        }
+                    } else {
+                        list1 = new ArrayList<>();
+                        list1.add(s);
+                        map.put(astring[1], list1);
+                    }
+                }
+
+                return new IncrementalWorldBackup.PreviousSnapshot(map, Files.getLastModifiedTime(path));
+            }
+        } catch (IOException ioexception) {
+            LOGGER.warn("Failed to read previous snapshot, backing up every file in full", ioexception);
+            return null;
+        }
+    }
+
+    public List<String> listSnapshots() throws IOException {
+        if (!Files.isDirectory(this.snapshotsDirectory)) {
+            return List.of();
+        } else {
+            try (Stream<Path> stream = Files.list(this.snapshotsDirectory)) {
+                return stream.map(p_path -> p_path.getFileName().toString())
+                    .filter(p_name -> p_name.endsWith(MANIFEST_EXTENSION))
+                    .map(p_name -> p_name.substring(0, p_name.length() - MANIFEST_EXTENSION.length()))
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+            }
+        }
+    }
+
+    public void restoreSnapshot(String p_name, Path p_targetDirectory) throws IOException {
+        List<String> list = Files.readAllLines(this.snapshotsDirectory.resolve(p_name + MANIFEST_EXTENSION), StandardCharsets.UTF_8);
+        Set<Path> set = new HashSet<>();
+        FileChannel filechannel = null;
+
+        try {
+            for (String s : list) {
+                String[] astring = s.split("\t");
+                switch (astring[0]) {
+                    case FILE_ENTRY: {
+                        Path path = resolveInside(p_targetDirectory, astring[1]);
+                        set.add(path);
+                        Files.createDirectories(path.getParent());
+                        Files.write(path, this.readObject(astring[2]));
+                        break;
+                    }
+                    case REGION_ENTRY: {
+                        if (filechannel != null) {
+                            filechannel.close();
+                        }
+
+                        Path path = resolveInside(p_targetDirectory, astring[1]);
+                        set.add(path);
+                        Files.createDirectories(path.getParent());
+                        filechannel = FileChannel.open(
+                            path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+                        );
+                        long i = Long.parseLong(astring[3]);
+                        if (i > HEADER_BYTES) {
+                            writeFully(filechannel, ByteBuffer.allocate(1), i - 1L);
+                        }
+
+                        writeFully(filechannel, ByteBuffer.wrap(this.readObject(astring[2])), 0L);
+                        break;
+                    }
+                    case CHUNK_ENTRY:
+                        if (filechannel == null) {
+                            throw new IOException("Chunk entry outside of a region in snapshot " + p_name);
+                        }
+
+                        writeFully(filechannel, ByteBuffer.wrap(this.readObject(astring[2])), Long.parseLong(astring[1]) * SECTOR_BYTES);
+                        break;
+                    default:
+                        throw new IOException("Unknown snapshot entry '" + astring[0] + "' in snapshot " + p_name);
+                }
+            }
+        } finally {
+            if (filechannel != null) {
+                filechannel.close();
+            }
+        }
+
+        deleteUnlisted(p_targetDirectory, set);
+    }
+
+    private static void deleteUnlisted(Path p_directory, Set<Path> p_keep) throws IOException {
+        List<Path> list;
+
+        try (Stream<Path> stream = Files.walk(p_directory)) {
+            list = stream.filter(Files::isRegularFile)
+                .map(Path::normalize)
+                .filter(p_path -> !p_keep.contains(p_path) && !p_path.endsWith("session.lock"))
+                .toList();
+        }
+
+        for (Path path : list) {
+            LOGGER.debug("Deleting {} which is not part of the restored snapshot", path);
+            Files.delete(path);
+        }
+    }
+
+    private List<String> storeRegion(
+        byte[] p_data,
+        String p_name,
+        String p_fileInfo,
+        @Nullable List<String> p_previousEntry,
+        @Nullable IncrementalWorldBackup.PreviousSnapshot p_previous,
+        AtomicLong p_written
+    ) throws IOException {
+        ByteBuffer bytebuffer = ByteBuffer.wrap(p_data);
+        ByteBuffer bytebuffer1 = null;
+        Int2ObjectMap<String> int2objectmap = new Int2ObjectOpenHashMap<>();
+        if (p_previousEntry != null && p_previousEntry.get(0).startsWith(REGION_ENTRY + "\t")) {
+            bytebuffer1 = ByteBuffer.wrap(this.readObject(p_previousEntry.get(0).split("\t")[2]));
+
+            for (int i = 1; i < p_previousEntry.size(); i++) {
+                String[] astring = p_previousEntry.get(i).split("\t");
+                int2objectmap.put(Integer.parseInt(astring[1]), astring[2]);
+            }
+        }
+
+        List<String> list = new ArrayList<>();
+        byte[] abyte = new byte[HEADER_BYTES];
+        System.arraycopy(p_data, 0, abyte, 0, HEADER_BYTES);
+        list.add(REGION_ENTRY + "\t" + p_name + "\t" + this.storeObject(abyte, p_written) + p_fileInfo);
+
+        for (int j = 0; j < CHUNKS_PER_REGION; j++) {
+            int k = bytebuffer.getInt(j * 4);
+            int l = k >>> 8;
+            int i1 = k & 0xFF;
+            if (k != 0) {
+                long j1 = (long)l * SECTOR_BYTES;
+                long k1 = j1 + (long)i1 * SECTOR_BYTES;
+                if (l < 2 || k1 > p_data.length) {
+                    LOGGER.warn("Skipping chunk {} of {} with invalid sectors {}+{}", j, p_name, l, i1);
+                } else {
+                    int l1 = bytebuffer.getInt(SECTOR_BYTES + j * 4);
+                    String s = int2objectmap.get(l);
+                    if (s == null
+                        || bytebuffer1 == null
+                        || bytebuffer1.getInt(j * 4) != k
+                        || bytebuffer1.getInt(SECTOR_BYTES + j * 4) != l1
+                        || !p_previous.isOlder(l1)) {
+                        byte[] abyte1 = new byte[i1 * SECTOR_BYTES];
+                        System.arraycopy(p_data, (int)j1, abyte1, 0, abyte1.length);
+                        s = this.storeObject(abyte1, p_written);
+                    }
+
+                    list.add(CHUNK_ENTRY + "\t" + l + "\t" + s);
+                }
+            }
+        }
+
+        return list;
+    }
+
+    private String storeObject(byte[] p_data, AtomicLong p_written) throws IOException {
+        String s = Hashing.sha256().hashBytes(p_data).toString();
+        Path path = this.getObjectPath(s);
+        if (!Files.exists(path)) {
+            Files.createDirectories(path.getParent());
+            Path path1 = Files.createTempFile(path.getParent(), s, ".tmp");
+
+            try {
+                try (OutputStream outputstream = new DeflaterOutputStream(Files.newOutputStream(path1))) {
+                    outputstream.write(p_data);
+                }
+
+                p_written.addAndGet(Files.size(path1));
+                Files.move(path1, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(path1);
+            }
+        }
+
+        return s;
+    }
+
+    private byte[] readObject(String p_hash) throws IOException {
+        byte[] abyte;
+        try (InputStream inputstream = new InflaterInputStream(Files.newInputStream(this.getObjectPath(p_hash)))) {
+            abyte = inputstream.readAllBytes();
+        }
+
+        return abyte;
+    }
+
+    private Path getObjectPath(String p_hash) {
+        return this.objectsDirectory.resolve(p_hash.substring(0, 2)).resolve(p_hash);
+    }
+
+    private static Path resolveInside(Path p_directory, String p_name) throws IOException {
+        Path path = p_directory.resolve(p_name).normalize();
+        if (!path.startsWith(p_directory.normalize())) {
+            throw new IOException("Snapshot entry escapes target directory: " + p_name);
+        } else {
+            return path;
+        }
+    }
+
+    @FunctionalInterface
+    interface FileAccess {
+        IncrementalWorldBackup.FileAccess DIRECT = (p_path, p_read) -> CompletableFuture.supplyAsync(p_read, Util.ioPool());
+
+        CompletableFuture<IncrementalWorldBackup.FileCopy> read(Path p_path, Supplier<IncrementalWorldBackup.FileCopy> p_read);
+    }
+
+    static record FileCopy(BasicFileAttributes attributes, @Nullable byte[] data) {
+    }
+
+    static record PreviousSnapshot(Map<String, List<String>> entries, FileTime createdTime) {
+        boolean isUnchanged(String p_entry, BasicFileAttributes p_attributes) {
+            String[] astring = p_entry.split("\t");
+            return astring.length >= 5
+                && Long.parseLong(astring[3]) == p_attributes.size()
+                && Long.parseLong(astring[4]) == p_attributes.lastModifiedTime().toMillis()
+                && p_attributes.lastModifiedTime().compareTo(this.createdTime) < 0;
+        }
+
+        boolean isOlder(int p_timestampSeconds) {
+            return (long)p_timestampSeconds < this.createdTime.to(TimeUnit.SECONDS);
+        }
+    }
+
+    private static void writeFully(FileChannel p_channel, ByteBuffer p_buffer, long p_position) throws IOException {
+        long i = p_position;
+
+        while (p_buffer.hasRemaining()) {
+            i += p_channel.write(p_buffer, i);
+        }
+    }
+}
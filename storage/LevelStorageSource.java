@@ -29,6 +29,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
@@ -66,6 +68,7 @@ import net.minecraft.world.flag.FeatureFlags;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelSettings;
 import net.minecraft.world.level.WorldDataConfiguration;
+import net.minecraft.world.level.chunk.storage.IOWorker;
 import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.level.dimension.LevelStem;
 import net.minecraft.world.level.levelgen.WorldDimensions;
@@ -84,10 +87,12 @@ public class LevelStorageSource {
     public static final String ALLOWED_SYMLINKS_CONFIG_NAME = "allowed_symlinks.txt";
     private static final int UNCOMPRESSED_NBT_QUOTA = 104857600;
     private static final int DISK_SPACE_WARNING_THRESHOLD = 67108864;
+    static final Pattern REGION_FILE_PATTERN = Pattern.compile("^r\\.(-?[0-9]+)\\.(-?[0-9]+)\\.mca$");
     private final Path baseDir;
     private final Path backupDir;
     final DataFixer fixerUpper;
     private final DirectoryValidator worldDirValidator;
+    private final LevelSummaryCache summaryCache;
 
     public LevelStorageSource(Path p_289985_, Path p_289978_, DirectoryValidator p_289922_, DataFixer p_289940_) {
         this.fixerUpper = p_289940_;
@@ -101,6 +106,7 @@ public class LevelStorageSource {
         this.baseDir = p_289985_;
         this.backupDir = p_289978_;
         this.worldDirValidator = p_289922_;
+        this.summaryCache = new LevelSummaryCache(p_289985_.resolve("level_summaries.dat"));
     }
 
     public static DirectoryValidator parseValidator(Path p_289968_) {
@@ -210,7 +216,11 @@ public class LevelStorageSource {
             }, Util.backgroundExecutor().forName("loadLevelSummaries")));
         }
 
-        return Util.sequenceFailFastAndCancel(list).thenApply(p_230832_ -> p_230832_.stream().filter(Objects::nonNull).sorted().toList());
+        List<String> list1 = p_230814_.levels.stream().map(LevelStorageSource.LevelDirectory::directoryName).toList();
+        return Util.sequenceFailFastAndCancel(list).thenApply(p_230832_ -> {
+            this.summaryCache.retainAndSave(list1);
+            return p_230832_.stream().filter(Objects::nonNull).sorted().toList();
+        });
     }
 
     private int getStorageVersion() {
@@ -242,11 +252,22 @@ public class LevelStorageSource {
                     }
                 }
 
+                BasicFileAttributes basicfileattributes = Files.readAttributes(path, BasicFileAttributes.class);
+                CompoundTag compoundtag2 = this.summaryCache.get(p_313112_.directoryName(), basicfileattributes);
+                if (compoundtag2 != null) {
+                    return this.makeLevelSummary(new Dynamic<>(NbtOps.INSTANCE, compoundtag2), p_313112_, p_312081_);
+                }
+
                 if (readLightweightData(path) instanceof CompoundTag compoundtag) {
                     CompoundTag compoundtag1 = compoundtag.getCompound("Data");
                     int i = NbtUtils.getDataVersion(compoundtag1, -1);
                     Dynamic<?> dynamic = DataFixTypes.LEVEL.updateToCurrentVersion(this.fixerUpper, new Dynamic<>(NbtOps.INSTANCE, compoundtag1), i);
-                    return this.makeLevelSummary(dynamic, p_313112_, p_312081_);
+                    LevelSummary levelsummary = this.makeLevelSummary(dynamic, p_313112_, p_312081_);
+                    if (dynamic.convert(NbtOps.INSTANCE).getValue() instanceof CompoundTag compoundtag3) {
+                        this.summaryCache.put(p_313112_.directoryName(), basicfileattributes, compoundtag3);
+                    }
+
+                    return levelsummary;
                 }
 
                 LOGGER.warn("Invalid root tag in {}", path);
@@ -616,6 +637,30 @@ public class LevelStorageSource {
             return Files.size(path1);
         }
 
+        public long makeIncrementalWorldBackup(List<IOWorker> p_ioWorkers) throws IOException {
+            this.checkLock();
+            Map<Path, IOWorker> map = Maps.newHashMap();
+
+            for (IOWorker ioworker : p_ioWorkers) {
+                map.put(ioworker.regionFolder().toAbsolutePath().normalize(), ioworker);
+            }
+
+            IncrementalWorldBackup incrementalworldbackup = new IncrementalWorldBackup(LevelStorageSource.this.getBackupPath().resolve(this.levelId + "_snapshots"));
+            return incrementalworldbackup.createSnapshot(this.levelDirectory.path(), LocalDateTime.now().format(LevelStorageSource.FORMATTER), (p_path, p_read) -> {
+                IOWorker ioworker1 = map.get(p_path.toAbsolutePath().normalize().getParent());
+                Matcher matcher = LevelStorageSource.REGION_FILE_PATTERN.matcher(p_path.getFileName().toString());
+                return ioworker1 != null && matcher.matches()
+                    ? ioworker1.runWithRegionFile(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), p_read)
+                    : CompletableFuture.supplyAsync(p_read, Util.ioPool());
+            });
+        }
+
+        public void restoreIncrementalWorldBackup(String p_snapshot) throws IOException {
+            this.checkLock();
+            IncrementalWorldBackup incrementalworldbackup = new IncrementalWorldBackup(LevelStorageSource.this.getBackupPath().resolve(this.levelId + "_snapshots"));
+            incrementalworldbackup.restoreSnapshot(p_snapshot, this.levelDirectory.path());
+        }
+
         public boolean hasWorldData() {
             return Files.exists(this.levelDirectory.dataFile()) || Files.exists(this.levelDirectory.oldDataFile());
         }
@@ -0,0 +1,120 @@
+package net.minecraft.world.level.storage;
+
+import com.mojang.logging.LogUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import org.slf4j.Logger;
+
+public class LevelSummaryCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String TAG_GAME_DATA_VERSION = "GameDataVersion";
+    private static final String TAG_ENTRIES = "Entries";
+    private final Path file;
+    private final Map<String, LevelSummaryCache.Entry> entries = new ConcurrentHashMap<>();
+    private boolean loaded;
+    private volatile boolean dirty;
+
+    public LevelSummaryCache(Path p_file) {
+        this.file = p_file;
+    }
+
+    @Nullable
+    public CompoundTag get(String p_directoryName, BasicFileAttributes p_attributes) {
+        this.ensureLoaded();
+        LevelSummaryCache.Entry levelsummarycache$entry = this.entries.get(p_directoryName);
+        return levelsummarycache$entry != null && levelsummarycache$entry.matches(p_attributes) ? levelsummarycache$entry.data : null;
+    }
+
+    public void put(String p_directoryName, BasicFileAttributes p_attributes, CompoundTag p_data) {
+        this.ensureLoaded();
+        this.entries.put(p_directoryName, new LevelSummaryCache.Entry(p_attributes.lastModifiedTime().toMillis(), p_attributes.size(), p_data));
+        this.dirty = true;
+    }
+
+    public synchronized void retainAndSave(Collection<String> p_directoryNames) {
+        this.ensureLoaded();
+        if (this.entries.keySet().retainAll(p_directoryNames)) {
+            this.dirty = true;
+        }
+
+        if (this.dirty) {
+            this.dirty = false;
+            CompoundTag compoundtag = new CompoundTag();
+            compoundtag.putInt(TAG_GAME_DATA_VERSION, getGameDataVersion());
+            CompoundTag compoundtag1 = new CompoundTag();
+            this.entries.forEach((p_name, p_entry) -> compoundtag1.put(p_name, p_entry.save()));
+            compoundtag.put(TAG_ENTRIES, compoundtag1);
+
+            try {
+                Path path = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+                NbtIo.writeCompressed(compoundtag, path);
+                Files.move(path, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ioexception) {
+                LOGGER.warn("Failed to save level summary cache to {}", this.file, ioexception);
+            }
+        }
+    }
+
+    private synchronized void ensureLoaded() {
+        if (!this.loaded) {
+            this.loaded = true;
+            if (Files.isRegularFile(this.file)) {
+                try {
+                    CompoundTag compoundtag = NbtIo.readCompressed(this.file, NbtAccounter.unlimitedHeap());
+                    if (compoundtag.getInt(TAG_GAME_DATA_VERSION) == getGameDataVersion()) {
+                        CompoundTag compoundtag1 = compoundtag.getCompound(TAG_ENTRIES);
+
+                        for (String s : compoundtag1.getAllKeys()) {
+                            LevelSummaryCache.Entry levelsummarycache$entry = LevelSummaryCache.Entry.load(compoundtag1.getCompound(s));
+                            if (levelsummarycache$entry != null) {
+                                this.entries.put(s, levelsummarycache$entry);
+                            }
+                        }
+                    } else {
+                        this.dirty = true;
+                    }
+                } catch (Exception exception) {
+                    LOGGER.warn("Failed to read level summary cache from {}, rebuilding it", this.file, exception);
+                    this.dirty = true;
+                }
+            }
+        }
+    }
+
+    private static int getGameDataVersion() {
+        return SharedConstants.getCurrentVersion().getDataVersion().getVersion();
+    }
+
+    static record Entry(long lastModified, long size, CompoundTag data) {
+        boolean matches(BasicFileAttributes p_attributes) {
+            return this.lastModified == p_attributes.lastModifiedTime().toMillis() && this.size == p_attributes.size();
+        }
+
+        CompoundTag save() {
+            CompoundTag compoundtag = new CompoundTag();
+            compoundtag.putLong("LastModified", this.lastModified);
+            compoundtag.putLong("Size", this.size);
+            compoundtag.put("Data", this.data);
+            return compoundtag;
+        }
+
+        @Nullable
+        static LevelSummaryCache.Entry load(CompoundTag p_tag) {
+            return p_tag.contains("Data", Tag.TAG_COMPOUND)
+                ? new LevelSummaryCache.Entry(p_tag.getLong("LastModified"), p_tag.getLong("Size"), p_tag.getCompound("Data"))
+                : null;
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package net.minecraft.world.level.storage;
+
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import net.minecraft.Util;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import org.slf4j.Logger;
+
+public class PagedSavedDataStore implements AutoCloseable {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    public static final int PAGE_SIZE = 4096;
+    private static final int LENGTH_HEADER_SIZE = 4;
+    private static final int PAGE_MAGIC = 0x50475045;
+    private static final int PAGE_HEADER_SIZE = 12;
+    private static final int INDEX_MAGIC = 0x50474958;
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_SIZE = 8;
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 64;
+    private final Path pagesFile;
+    private final Path indexFile;
+    private final Path oldIndexFile;
+    private final Object2LongMap<String> index = new Object2LongOpenHashMap<>();
+    private final BitSet usedPages = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object writeLock = new Object();
+    @Nullable
+    private FileChannel channel;
+    @Nullable
+    private FileChannel indexChannel;
+    private long indexLength;
+    private int indexRecords;
+    private boolean compactionNeeded;
+    private boolean keepOldIndex;
+    private volatile boolean loaded;
+
+    public PagedSavedDataStore(Path p_pagesFile, Path p_indexFile) {
+        this.pagesFile = p_pagesFile;
+        this.indexFile = p_indexFile;
+        this.oldIndexFile = p_indexFile.resolveSibling(p_indexFile.getFileName() + "_old");
+        this.index.defaultReturnValue(-1L);
+    }
+
+    public boolean contains(String p_id) throws IOException {
+        this.ensureLoaded();
+        this.lock.readLock().lock();
+
+        boolean flag;
+        try {
+            flag = this.index.containsKey(p_id);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        return flag;
+    }
+
+    @Nullable
+    public CompoundTag read(String p_id) throws IOException {
+        this.ensureLoaded();
+        this.lock.readLock().lock();
+
+        ByteBuffer bytebuffer;
+        try {
+            long i = this.index.getLong(p_id);
+            if (i == -1L || this.channel == null) {
+                return null;
+            }
+
+            bytebuffer = ByteBuffer.allocate(getPageCount(i) * PAGE_SIZE);
+            readFully(this.channel, bytebuffer, (long)getFirstPage(i) * PAGE_SIZE);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        try (DataInputStream datainputstream = openPage(p_id, bytebuffer.array())) {
+            return NbtIo.read(datainputstream);
+        }
+    }
+
+    private static DataInputStream openPage(String p_id, byte[] p_page) throws IOException {
+        ByteBuffer bytebuffer = ByteBuffer.wrap(p_page);
+        int i = bytebuffer.getInt();
+        if (i != PAGE_MAGIC) {
+            if (i < 0 || i > p_page.length - LENGTH_HEADER_SIZE) {
+                throw new IOException("Corrupted page entry " + p_id + ": invalid length " + i);
+            } else {
+                return new DataInputStream(new ByteArrayInputStream(p_page, LENGTH_HEADER_SIZE, i));
+            }
+        } else {
+            int j = bytebuffer.getInt();
+            if (j < 0 || j > p_page.length - PAGE_HEADER_SIZE) {
+                throw new IOException("Corrupted page entry " + p_id + ": invalid length " + j);
+            } else if (bytebuffer.getInt() != checksum(p_page, PAGE_HEADER_SIZE, j)) {
+                throw new IOException("Corrupted page entry " + p_id + ": checksum mismatch");
+            } else {
+                DataInputStream datainputstream = new DataInputStream(new ByteArrayInputStream(p_page, PAGE_HEADER_SIZE, j));
+                String s = datainputstream.readUTF();
+                if (!s.equals(p_id)) {
+                    throw new IOException("Page entry " + p_id + " holds data for " + s);
+                } else {
+                    return datainputstream;
+                }
+            }
+        }
+    }
+
+    public void write(Map<String, CompoundTag> p_entries) throws IOException {
+        if (!p_entries.isEmpty()) {
+            this.ensureLoaded();
+            synchronized (this.writeLock) {
+                List<PagedSavedDataStore.PendingEntry> list = new ArrayList<>(p_entries.size());
+
+                for (Entry<String, CompoundTag> entry : p_entries.entrySet()) {
+                    list.add(serialize(entry.getKey(), entry.getValue()));
+                }
+
+                this.lock.writeLock().lock();
+
+                FileChannel filechannel;
+                try {
+                    filechannel = this.channel;
+                    if (filechannel == null) {
+                        throw new IOException("Paged saved data store " + this.pagesFile + " is closed");
+                    }
+
+                    for (PagedSavedDataStore.PendingEntry pagedsaveddatastore$pendingentry : list) {
+                        pagedsaveddatastore$pendingentry.firstPage = this.allocate(pagedsaveddatastore$pendingentry.pageCount());
+                    }
+                } finally {
+                    this.lock.writeLock().unlock();
+                }
+
+                try {
+                    for (PagedSavedDataStore.PendingEntry pagedsaveddatastore$pendingentry1 : list) {
+                        writeFully(filechannel, pagedsaveddatastore$pendingentry1.data(), (long)pagedsaveddatastore$pendingentry1.firstPage * PAGE_SIZE);
+                    }
+
+                    filechannel.force(false);
+                } catch (IOException ioexception) {
+                    this.release(list);
+                    throw ioexception;
+                }
+
+                this.writeIndex(list);
+                this.lock.writeLock().lock();
+
+                try {
+                    for (PagedSavedDataStore.PendingEntry pagedsaveddatastore$pendingentry2 : list) {
+                        long i = this.index.put(pagedsaveddatastore$pendingentry2.id(), pack(pagedsaveddatastore$pendingentry2.firstPage, pagedsaveddatastore$pendingentry2.pageCount()));
+                        if (i != -1L) {
+                            this.usedPages.clear(getFirstPage(i), getFirstPage(i) + getPageCount(i));
+                        }
+                    }
+                } finally {
+                    this.lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private static PagedSavedDataStore.PendingEntry serialize(String p_id, CompoundTag p_tag) throws IOException {
+        ByteArrayOutputStream bytearrayoutputstream = new ByteArrayOutputStream(PAGE_SIZE * 5);
+
+        try (DataOutputStream dataoutputstream = new DataOutputStream(bytearrayoutputstream)) {
+            dataoutputstream.writeInt(PAGE_MAGIC);
+            dataoutputstream.writeInt(0);
+            dataoutputstream.writeInt(0);
+            dataoutputstream.writeUTF(p_id);
+            NbtIo.write(p_tag, dataoutputstream);
+        }
+
+        byte[] abyte = bytearrayoutputstream.toByteArray();
+        ByteBuffer bytebuffer = ByteBuffer.wrap(abyte);
+        bytebuffer.putInt(4, abyte.length - PAGE_HEADER_SIZE);
+        bytebuffer.putInt(8, checksum(abyte, PAGE_HEADER_SIZE, abyte.length - PAGE_HEADER_SIZE));
+        return new PagedSavedDataStore.PendingEntry(p_id, bytebuffer, (bytebuffer.capacity() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    private void release(List<PagedSavedDataStore.PendingEntry> p_entries) {
+        this.lock.writeLock().lock();
+
+        try {
+            for (PagedSavedDataStore.PendingEntry pagedsaveddatastore$pendingentry : p_entries) {
+                this.usedPages.clear(pagedsaveddatastore$pendingentry.firstPage, pagedsaveddatastore$pendingentry.firstPage + pagedsaveddatastore$pendingentry.pageCount());
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private int allocate(int p_pageCount) {
+        int i = 0;
+
+        while (true) {
+            int j = this.usedPages.nextClearBit(i);
+            int k = this.usedPages.nextSetBit(j);
+            if (k == -1 || k - j >= p_pageCount) {
+                this.usedPages.set(j, j + p_pageCount);
+                return j;
+            }
+
+            i = k;
+        }
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (!this.loaded) {
+            this.lock.writeLock().lock();
+
+            try {
+                if (!this.loaded) {
+                    this.channel = FileChannel.open(this.pagesFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    try {
+                        this.load();
+                    } catch (IOException ioexception) {
+                        this.channel.close();
+                        this.channel = null;
+                        this.index.clear();
+                        throw ioexception;
+                    }
+
+                    this.loaded = true;
+                }
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        if (Files.exists(this.indexFile)) {
+            try {
+                this.readIndex(this.indexFile);
+            } catch (IOException ioexception) {
+                if (!Files.exists(this.oldIndexFile)) {
+                    throw ioexception;
+                }
+
+                LOGGER.warn("Failed to read {}, falling back to {}", this.indexFile, this.oldIndexFile, ioexception);
+                this.index.clear();
+                this.readIndex(this.oldIndexFile);
+                this.dropReusedEntries();
+                this.compactionNeeded = true;
+                this.keepOldIndex = true;
+            }
+        } else if (Files.exists(this.oldIndexFile)) {
+            LOGGER.warn("Missing {}, falling back to {}", this.indexFile, this.oldIndexFile);
+            this.readIndex(this.oldIndexFile);
+            this.dropReusedEntries();
+            this.compactionNeeded = true;
+            this.keepOldIndex = true;
+        }
+
+        for (long i : this.index.values()) {
+            this.usedPages.set(getFirstPage(i), getFirstPage(i) + getPageCount(i));
+        }
+    }
+
+    private void dropReusedEntries() throws IOException {
+        Iterator<Object2LongMap.Entry<String>> iterator = this.index.object2LongEntrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Object2LongMap.Entry<String> entry = iterator.next();
+            long i = entry.getLongValue();
+            ByteBuffer bytebuffer = ByteBuffer.allocate(getPageCount(i) * PAGE_SIZE);
+            readFully(this.channel, bytebuffer, (long)getFirstPage(i) * PAGE_SIZE);
+
+            try {
+                openPage(entry.getKey(), bytebuffer.array()).close();
+            } catch (IOException ioexception) {
+                LOGGER.warn("Dropping {} from {}: {}", entry.getKey(), this.oldIndexFile, ioexception.getMessage());
+                iterator.remove();
+            }
+        }
+    }
+
+    private void readIndex(Path p_path) throws IOException {
+        byte[] abyte = Files.readAllBytes(p_path);
+        if (abyte.length < INDEX_HEADER_SIZE || ByteBuffer.wrap(abyte).getInt() != INDEX_MAGIC) {
+            this.readLegacyIndex(p_path);
+        } else {
+            DataInputStream datainputstream = new DataInputStream(new ByteArrayInputStream(abyte));
+            datainputstream.readInt();
+            int i = datainputstream.readInt();
+            if (i != INDEX_VERSION) {
+                throw new IOException("Unsupported index version " + i + " in " + p_path);
+            }
+
+            int j = INDEX_HEADER_SIZE;
+            int k = 0;
+
+            try {
+                while (j < abyte.length) {
+                    String s = datainputstream.readUTF();
+                    long l = datainputstream.readLong();
+                    int i1 = abyte.length - datainputstream.available();
+                    if (datainputstream.readInt() != checksum(abyte, j, i1 - j)) {
+                        break;
+                    }
+
+                    this.index.put(s, l);
+                    j = i1 + 4;
+                    k++;
+                }
+            } catch (EOFException eofexception) {
+            }
+
+            if (j < abyte.length) {
+                LOGGER.warn("Discarding {} bytes of incomplete index records at the end of {}", abyte.length - j, p_path);
+            }
+
+            this.indexLength = (long)j;
+            this.indexRecords = k;
+        }
+    }
+
+    private void readLegacyIndex(Path p_path) throws IOException {
+        CompoundTag compoundtag = NbtIo.read(p_path);
+        if (compoundtag != null) {
+            for (String s : compoundtag.getAllKeys()) {
+                if (compoundtag.contains(s, Tag.TAG_LONG)) {
+                    this.index.put(s, compoundtag.getLong(s));
+                }
+            }
+        }
+
+        this.indexLength = 0L;
+        this.indexRecords = 0;
+        this.compactionNeeded = true;
+    }
+
+    private void writeIndex(List<PagedSavedDataStore.PendingEntry> p_entries) throws IOException {
+        if (!this.compactionNeeded
+            && this.indexLength != 0L
+            && this.indexRecords + p_entries.size() <= Math.max(MIN_RECORDS_BEFORE_COMPACTION, (this.index.size() + p_entries.size()) * 2)) {
+            ByteArrayOutputStream bytearrayoutputstream = new ByteArrayOutputStream();
+
+            for (PagedSavedDataStore.PendingEntry pagedsaveddatastore$pendingentry : p_entries) {
+                writeRecord(bytearrayoutputstream, pagedsaveddatastore$pendingentry.id(), pack(pagedsaveddatastore$pendingentry.firstPage, pagedsaveddatastore$pendingentry.pageCount()));
+            }
+
+            FileChannel filechannel = this.getIndexChannel();
+            writeFully(filechannel, ByteBuffer.wrap(bytearrayoutputstream.toByteArray()), this.indexLength);
+            filechannel.force(false);
+            this.indexLength = this.indexLength + (long)bytearrayoutputstream.size();
+            this.indexRecords = this.indexRecords + p_entries.size();
+        } else {
+            Object2LongMap<String> object2longmap = new Object2LongOpenHashMap<>(this.index);
+
+            for (PagedSavedDataStore.PendingEntry pagedsaveddatastore$pendingentry1 : p_entries) {
+                object2longmap.put(pagedsaveddatastore$pendingentry1.id(), pack(pagedsaveddatastore$pendingentry1.firstPage, pagedsaveddatastore$pendingentry1.pageCount()));
+            }
+
+            this.compactIndex(object2longmap);
+        }
+    }
+
+    private void compactIndex(Object2LongMap<String> p_entries) throws IOException {
+        ByteArrayOutputStream bytearrayoutputstream = new ByteArrayOutputStream();
+
+        try (DataOutputStream dataoutputstream = new DataOutputStream(bytearrayoutputstream)) {
+            dataoutputstream.writeInt(INDEX_MAGIC);
+            dataoutputstream.writeInt(INDEX_VERSION);
+        }
+
+        for (Object2LongMap.Entry<String> entry : p_entries.object2LongEntrySet()) {
+            writeRecord(bytearrayoutputstream, entry.getKey(), entry.getLongValue());
+        }
+
+        Path path = this.indexFile.resolveSibling(this.indexFile.getFileName() + ".tmp");
+
+        try (FileChannel filechannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(filechannel, ByteBuffer.wrap(bytearrayoutputstream.toByteArray()), 0L);
+            filechannel.force(true);
+        }
+
+        this.closeIndexChannel();
+        if (Files.exists(this.indexFile) && !this.keepOldIndex) {
+            if (!Util.safeReplaceOrMoveFile(this.indexFile, path, this.oldIndexFile, false)) {
+                throw new IOException("Failed to replace " + this.indexFile);
+            }
+        } else {
+            Files.move(path, this.indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        syncDirectory(this.indexFile.getParent());
+        this.indexLength = (long)bytearrayoutputstream.size();
+        this.indexRecords = p_entries.size();
+        this.compactionNeeded = false;
+        this.keepOldIndex = false;
+    }
+
+    private static void writeRecord(ByteArrayOutputStream p_output, String p_id, long p_packed) throws IOException {
+        ByteArrayOutputStream bytearrayoutputstream = new ByteArrayOutputStream();
+
+        try (DataOutputStream dataoutputstream = new DataOutputStream(bytearrayoutputstream)) {
+            dataoutputstream.writeUTF(p_id);
+            dataoutputstream.writeLong(p_packed);
+        }
+
+        byte[] abyte = bytearrayoutputstream.toByteArray();
+        p_output.write(abyte);
+        p_output.write(ByteBuffer.allocate(4).putInt(checksum(abyte, 0, abyte.length)).array());
+    }
+
+    private static int checksum(byte[] p_bytes, int p_offset, int p_length) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(p_bytes, p_offset, p_length);
+        return (int)crc32.getValue();
+    }
+
+    private static void syncDirectory(Path p_directory) {
+        try (FileChannel filechannel = FileChannel.open(p_directory, StandardOpenOption.READ)) {
+            filechannel.force(true);
+        } catch (IOException ioexception) {
+            LOGGER.debug("Could not sync directory {}", p_directory, ioexception);
+        }
+    }
+
+    private FileChannel getIndexChannel() throws IOException {
+        if (this.indexChannel == null) {
+            this.indexChannel = FileChannel.open(this.indexFile, StandardOpenOption.WRITE);
+            this.indexChannel.truncate(this.indexLength);
+        }
+
+        return this.indexChannel;
+    }
+
+    private void closeIndexChannel() throws IOException {
+        if (this.indexChannel != null) {
+            this.indexChannel.close();
+            this.indexChannel = null;
+        }
+    }
+
+    private static void readFully(FileChannel p_channel, ByteBuffer p_buffer, long p_position) throws IOException {
+        long i = p_position;
+
+        while (p_buffer.hasRemaining()) {
+            int j = p_channel.read(p_buffer, i);
+            if (j < 0) {
+                break;
+            }
+
+            i += j;
+        }
+    }
+
+    private static void writeFully(FileChannel p_channel, ByteBuffer p_buffer, long p_position) throws IOException {
+        long i = p_position;
+
+        while (p_buffer.hasRemaining()) {
+            i += p_channel.write(p_buffer, i);
+        }
+    }
+
+    private static long pack(int p_firstPage, int p_pageCount) {
+        return (long)p_firstPage << 32 | (long)p_pageCount & 4294967295L;
+    }
+
+    private static int getFirstPage(long p_packed) {
+        return (int)(p_packed >>> 32);
+    }
+
+    private static int getPageCount(long p_packed) {
+        return (int)p_packed;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.writeLock) {
+            this.lock.writeLock().lock();
+
+            try {
+                if (this.channel != null) {
+                    try {
+                        this.channel.close();
+                    } catch (IOException ioexception) {
+                        LOGGER.error("Failed to close {}", this.pagesFile, ioexception);
+                    }
+
+                    this.channel = null;
+                }
+
+                try {
+                    this.closeIndexChannel();
+                } catch (IOException ioexception1) {
+                    LOGGER.error("Failed to close {}", this.indexFile, ioexception1);
+                }
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    static class PendingEntry {
+        private final String id;
+        private final ByteBuffer data;
+        private final int pageCount;
+        int firstPage;
+
+        PendingEntry(String p_id, ByteBuffer p_data, int p_pageCount) {
+            this.id = p_id;
+            this.data = p_data;
+            this.pageCount = p_pageCount;
+        }
+
+        String id() {
+            return this.id;
+        }
+
+        ByteBuffer data() {
+            return this.data;
+        }
+
+        int pageCount() {
+            return this.pageCount;
+        }
+    }
+}
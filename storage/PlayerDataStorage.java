@@ -8,7 +8,13 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
 import net.minecraft.Util;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.NbtAccounter;
@@ -23,6 +29,11 @@ public class PlayerDataStorage {
     private final File playerDir;
     protected final DataFixer fixerUpper;
     private static final DateTimeFormatter FORMATTER = FileNameDateFormatter.create();
+    private final Object writeLock = new Object();
+    private final Map<String, CompoundTag> queuedWrites = new HashMap<>();
+    private final Map<String, CompoundTag> inFlightWrites = new HashMap<>();
+    private final Map<String, CompletableFuture<Void>> writeTasks = new ConcurrentHashMap<>();
+    private volatile boolean writeBehind;
 
     public PlayerDataStorage(LevelStorageSource.LevelStorageAccess p_78430_, DataFixer p_78431_) {
         this.fixerUpper = p_78431_;
@@ -30,17 +41,82 @@ public class PlayerDataStorage {
         this.playerDir.mkdirs();
     }
 
+    public void setWriteBehind(boolean p_writeBehind) {
+        this.writeBehind = p_writeBehind;
+        if (!p_writeBehind) {
+            this.flush();
+        }
+    }
+
     public void save(Player p_78434_) {
+        CompoundTag compoundtag;
+        try {
+            compoundtag = p_78434_.saveWithoutId(new CompoundTag());
+        } catch (Exception exception) {
+            LOGGER.warn("Failed to save player data for {}", p_78434_.getName().getString());
+            return;
+        }
+
+        String s = p_78434_.getStringUUID();
+        String s1 = p_78434_.getName().getString();
+        if (this.writeBehind) {
+            synchronized (this.writeLock) {
+                boolean flag = !this.queuedWrites.containsKey(s) && !this.inFlightWrites.containsKey(s);
+                this.queuedWrites.put(s, compoundtag);
+                if (flag) {
+                    CompletableFuture<Void> completablefuture = CompletableFuture.runAsync(() -> this.drainWrites(s, s1), Util.ioPool());
+                    this.writeTasks.put(s, completablefuture);
+                    completablefuture.whenComplete((p_void, p_throwable) -> this.writeTasks.remove(s, completablefuture));
+                }
+            }
+        } else {
+            this.write(s, s1, compoundtag);
+        }
+    }
+
+    private void drainWrites(String p_uuid, String p_name) {
+        while (true) {
+            CompoundTag compoundtag;
+            synchronized (this.writeLock) {
+                this.inFlightWrites.remove(p_uuid);
+                compoundtag = this.queuedWrites.remove(p_uuid);
+                if (compoundtag == null) {
+                    return;
+                }
+
+                this.inFlightWrites.put(p_uuid, compoundtag);
+            }
+
+            this.write(p_uuid, p_name, compoundtag);
+        }
+    }
+
+    private void write(String p_uuid, String p_name, CompoundTag p_tag) {
         try {
-            CompoundTag compoundtag = p_78434_.saveWithoutId(new CompoundTag());
             Path path = this.playerDir.toPath();
-            Path path1 = Files.createTempFile(path, p_78434_.getStringUUID() + "-", ".dat");
-            NbtIo.writeCompressed(compoundtag, path1);
-            Path path2 = path.resolve(p_78434_.getStringUUID() + ".dat");
-            Path path3 = path.resolve(p_78434_.getStringUUID() + ".dat_old");
+            Path path1 = Files.createTempFile(path, p_uuid + "-", ".dat");
+            NbtIo.writeCompressed(p_tag, path1);
+            Path path2 = path.resolve(p_uuid + ".dat");
+            Path path3 = path.resolve(p_uuid + ".dat_old");
             Util.safeReplaceFile(path2, path1, path3);
         } catch (Exception exception) {
-            LOGGER.warn("Failed to save player data for {}", p_78434_.getName().getString());
+            LOGGER.warn("Failed to save player data for {}", p_name);
+        }
+    }
+
+    public void flush() {
+        CompletableFuture.allOf(this.writeTasks.values().toArray(CompletableFuture[]::new)).join();
+    }
+
+    @Nullable
+    private CompoundTag getUnwrittenTag(String p_uuid) {
+        synchronized (this.writeLock) {
+            CompoundTag compoundtag = this.queuedWrites.get(p_uuid);
+            if (compoundtag == null) {
+                compoundtag = this.inFlightWrites.get(p_uuid);
+            }
+
+            return compoundtag == null ? null : compoundtag.copy();
         }
     }
 
@@ -70,17 +146,33 @@ public class PlayerDataStorage {
         return Optional.empty();
     }
 
-    public Optional<CompoundTag> load(Player p_78436_) {
-        Optional<CompoundTag> optional = this.load(p_78436_, ".dat");
-        if (optional.isEmpty()) {
-            this.backup(p_78436_, ".dat");
+    private Optional<CompoundTag> read(Player p_player) {
+        CompoundTag compoundtag = this.getUnwrittenTag(p_player.getStringUUID());
+        if (compoundtag != null) {
+            return Optional.of(compoundtag);
+        } else {
+            Optional<CompoundTag> optional = this.load(p_player, ".dat");
+            if (optional.isEmpty()) {
+                this.backup(p_player, ".dat");
+            }
+
+            return optional.or(() -> this.load(p_player, ".dat_old")).map(p_328937_ -> {
+                int i = NbtUtils.getDataVersion(p_328937_, -1);
+                return DataFixTypes.PLAYER.updateToCurrentVersion(this.fixerUpper, p_328937_, i);
+            });
         }
+    }
+
+    public Optional<CompoundTag> load(Player p_78436_) {
+        Optional<CompoundTag> optional = this.read(p_78436_);
+        optional.ifPresent(p_78436_::load);
+        return optional;
+    }
 
-        return optional.or(() -> this.load(p_78436_, ".dat_old")).map(p_328937_ -> {
-            int i = NbtUtils.getDataVersion(p_328937_, -1);
-            p_328937_ = DataFixTypes.PLAYER.updateToCurrentVersion(this.fixerUpper, p_328937_, i);
-            p_78436_.load(p_328937_);
-            return p_328937_;
-        });
+    public CompletableFuture<Optional<CompoundTag>> loadAsync(Player p_player, Executor p_mainThreadExecutor) {
+        return CompletableFuture.supplyAsync(() -> this.read(p_player), Util.ioPool()).thenApplyAsync(p_tag -> {
+            p_tag.ifPresent(p_player::load);
+            return p_tag;
+        }, p_mainThreadExecutor);
     }
-}
\ No newline at end of file
+}